@@ -0,0 +1,145 @@
+package com.momosoftworks.coldsweat.api.event.common;
+
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraftforge.eventbus.api.Event;
+
+import java.util.BitSet;
+
+/**
+ * Posted at the end of each server tick with all the block changes in a level during that tick.<br>
+ * Changes are grouped by chunk section, so listeners only interested in some sections can skip the rest. Changes in the
+ * same section are in the order they happened.<br>
+ * This event is not {@link net.minecraftforge.eventbus.api.Cancelable}.
+ * @see BlockStateChangedEvent
+ */
+public class BlockChangeBatchEvent extends Event
+{
+    private final Level level;
+    private final long[] positions;
+    private final int[] oldStates;
+    private final int[] newStates;
+    // Changes [sectionStarts[i], sectionStarts[i + 1]) are in section sectionPositions[i]
+    private final long[] sectionPositions;
+    private final int[] sectionStarts;
+    private final BitSet shapeChecked;
+    private final BitSet shapeChanged;
+
+    /**
+     * @param positions The positions of the changed blocks, as {@link BlockPos#asLong()}
+     * @param oldStates The IDs of the blocks' old states, as {@link Block#getId(BlockState)}
+     * @param newStates The IDs of the blocks' new states
+     * @param size The number of changes in the arrays
+     */
+    public BlockChangeBatchEvent(Level level, long[] positions, int[] oldStates, int[] newStates, int size)
+    {
+        this.level = level;
+        long[] sections = new long[size];
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++)
+        {   sections[i] = SectionPos.blockToSection(positions[i]);
+            order[i] = i;
+        }
+        // Merge sort is stable, so changes in the same section stay in order
+        IntArrays.mergeSort(order, 0, size, (a, b) -> Long.compare(sections[a], sections[b]));
+
+        this.positions = new long[size];
+        this.oldStates = new int[size];
+        this.newStates = new int[size];
+        LongArrayList sectionPositions = new LongArrayList();
+        int[] sectionStarts = new int[size + 1];
+        for (int i = 0; i < size; i++)
+        {
+            int change = order[i];
+            this.positions[i] = positions[change];
+            this.oldStates[i] = oldStates[change];
+            this.newStates[i] = newStates[change];
+            if (i == 0 || sections[change] != sections[order[i - 1]])
+            {   sectionStarts[sectionPositions.size()] = i;
+                sectionPositions.add(sections[change]);
+            }
+        }
+        sectionStarts[sectionPositions.size()] = size;
+        this.sectionPositions = sectionPositions.toLongArray();
+        this.sectionStarts = sectionStarts;
+        this.shapeChecked = new BitSet(size);
+        this.shapeChanged = new BitSet(size);
+    }
+
+    public Level getLevel()
+    {   return level;
+    }
+
+    /**
+     * @return The total number of changes
+     */
+    public int size()
+    {   return positions.length;
+    }
+
+    /**
+     * @return The number of chunk sections with changes
+     */
+    public int getSectionCount()
+    {   return sectionPositions.length;
+    }
+
+    /**
+     * @return The position of the given section, as {@link SectionPos#asLong()}
+     */
+    public long getSectionPos(int section)
+    {   return sectionPositions[section];
+    }
+
+    /**
+     * @return The index of the first change in the given section
+     */
+    public int getSectionStart(int section)
+    {   return sectionStarts[section];
+    }
+
+    /**
+     * @return The index after the last change in the given section
+     */
+    public int getSectionEnd(int section)
+    {   return sectionStarts[section + 1];
+    }
+
+    /**
+     * @return The position of the given change, as {@link BlockPos#asLong()}
+     */
+    public long getPackedPos(int change)
+    {   return positions[change];
+    }
+
+    public BlockPos getPos(int change)
+    {   return BlockPos.of(positions[change]);
+    }
+
+    public BlockState getOldState(int change)
+    {   return Block.stateById(oldStates[change]);
+    }
+
+    public BlockState getNewState(int change)
+    {   return Block.stateById(newStates[change]);
+    }
+
+    /**
+     * @return True if the change altered the block's collision shape. Checked once, then shared by all listeners.
+     */
+    public boolean hasCollisionChanged(int change)
+    {
+        if (!shapeChecked.get(change))
+        {
+            BlockPos pos = this.getPos(change);
+            shapeChecked.set(change);
+            shapeChanged.set(change, !this.getOldState(change).getCollisionShape(level, pos).equals(this.getNewState(change).getCollisionShape(level, pos)));
+        }
+        return shapeChanged.get(change);
+    }
+}
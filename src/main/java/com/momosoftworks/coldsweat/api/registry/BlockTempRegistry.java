@@ -23,6 +23,9 @@ public class BlockTempRegistry
         }
     };
 
+    // Memoized results of hasBlockTemp(), indexed by BlockState ID. 0 = not computed, 1 = false, 2 = true
+    private static volatile byte[] HAS_BLOCK_TEMP = new byte[0];
+
     public static void register(BlockTemp blockTemp)
     {
         blockTemp.getAffectedBlocks().forEach(block ->
@@ -50,11 +53,13 @@ public class BlockTempRegistry
             }
         });
         BLOCK_TEMPS.add(blockTemp);
+        HAS_BLOCK_TEMP = new byte[0];
     }
 
     public static void flush()
     {
         MAPPED_BLOCKS.clear();
+        HAS_BLOCK_TEMP = new byte[0];
     }
 
     public static List<BlockTemp> getBlockTempsFor(BlockState blockstate)
@@ -70,4 +75,28 @@ public class BlockTempRegistry
         }
         return blockTemps;
     }
+
+    /**
+     * @return True if the block has any BlockTemps registered to it, other than the default one
+     */
+    public static boolean hasBlockTemp(BlockState blockstate)
+    {
+        int id = Block.getId(blockstate);
+        if (id < 0) return computeHasBlockTemp(blockstate);
+
+        byte[] table = HAS_BLOCK_TEMP;
+        if (id >= table.length)
+        {   HAS_BLOCK_TEMP = table = Arrays.copyOf(table, Math.max(id + 1, Block.BLOCK_STATE_REGISTRY.size()));
+        }
+        if (table[id] == 0)
+        {   table[id] = (byte) (computeHasBlockTemp(blockstate) ? 2 : 1);
+        }
+        return table[id] == 2;
+    }
+
+    private static boolean computeHasBlockTemp(BlockState blockstate)
+    {
+        List<BlockTemp> blockTemps = getBlockTempsFor(blockstate);
+        return !blockTemps.isEmpty() && !(blockTemps.size() == 1 && blockTemps.contains(DEFAULT_BLOCK_TEMP));
+    }
 }
@@ -4,18 +4,16 @@ import com.mojang.datafixers.util.Pair;
 import com.momosoftworks.coldsweat.api.util.Temperature;
 import com.momosoftworks.coldsweat.config.ConfigSettings;
 import com.momosoftworks.coldsweat.util.math.CSMath;
+import com.momosoftworks.coldsweat.util.world.BiomeClimateCache;
 import com.momosoftworks.coldsweat.util.world.WorldHelper;
+import com.momosoftworks.coldsweat.util.world.WorldTempMemo;
 import net.minecraft.core.BlockPos;
-import net.minecraft.core.Holder;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.level.Level;
-import net.minecraft.world.level.biome.Biome;
 import net.minecraft.world.level.dimension.DimensionType;
-import net.minecraftforge.common.Tags;
-import oshi.util.tuples.Triplet;
 
-import java.util.function.Function;
+import java.util.function.DoubleUnaryOperator;
 
 public class BiomeTempModifier extends TempModifier
 {
@@ -30,13 +28,19 @@ public class BiomeTempModifier extends TempModifier
     }
 
     @Override
-    public Function<Double, Double> calculate(LivingEntity entity, Temperature.Type type)
+    public DoubleUnaryOperator calculatePrimitive(LivingEntity entity, Temperature.Type type)
+    {   return this.calculate(entity.level(), entity.blockPosition(), entity.getY());
+    }
+
+    @Override
+    protected DoubleUnaryOperator calculateAt(Level level, BlockPos pos, Temperature.Type type)
+    {   return this.calculate(level, pos, pos.getY() + 0.5);
+    }
+
+    private DoubleUnaryOperator calculate(Level level, BlockPos entPos, double altitude)
     {
         try
         {
-            double worldTemp = 0;
-            Level level = entity.level();
-            BlockPos entPos = entity.blockPosition();
             ResourceLocation dimensionID = level.dimension().location();
 
             // In the case that the dimension temperature is overridden by config, use that and skip everything else
@@ -45,62 +49,55 @@ public class BiomeTempModifier extends TempModifier
             {   return temp -> temp + Temperature.convertUnits(dimTempOverride.getFirst(), dimTempOverride.getSecond(), Temperature.Units.MC, true);
             }
 
-            int biomeCount = 0;
-            for (BlockPos blockPos : level.dimensionType().hasCeiling() ? WorldHelper.getPositionCube(entPos, 6, 10) : WorldHelper.getPositionGrid(entPos, 36, 10))
+            // Entities close together share the result
+            double worldTemp = WorldTempMemo.get(level).getOrCalculate(this.getID(), entPos, () -> calculateWorldTemp(level, entPos, altitude, dimensionID));
+            return temp -> temp + worldTemp;
+        }
+        catch (Exception e)
+        {   return temp -> temp;
+        }
+    }
+
+    private static double calculateWorldTemp(Level level, BlockPos entPos, double altitude, ResourceLocation dimensionID)
+    {
+        double worldTemp = 0;
+        BiomeClimateCache climateCache = BiomeClimateCache.get(level);
+        int biomeCount = 0;
+        for (BlockPos blockPos : level.dimensionType().hasCeiling() ? WorldHelper.getPositionCube(entPos, 6, 10) : WorldHelper.getPositionGrid(entPos, 36, 10))
+        {
+            if (!level.isInWorldBounds(blockPos) || blockPos.distSqr(entPos) > 30*30) continue;
+            // Get the biome's temperature, either overridden by config or calculated
+            BiomeClimateCache.BiomeClimate climate = climateCache.getClimate(blockPos);
+            if (climate == null || climate.underground()) continue;
+
+            biomeCount++;
+            // Biome temp at midnight (bottom of the sine wave)
+            double min = climate.min();
+            // Biome temp at noon (top of the sine wave)
+            double max = climate.max();
+
+            DimensionType dimension = level.dimensionType();
+            if (!dimension.hasCeiling())
             {
-                if (!level.isInWorldBounds(blockPos) || blockPos.distSqr(entPos) > 30*30) continue;
-                Holder<Biome> holder = level.getBiomeManager().getBiome(blockPos);
-                if (holder.is(Tags.Biomes.IS_UNDERGROUND)) continue;
-                if (holder.unwrapKey().isEmpty()) continue;
-
-                biomeCount++;
-                Biome biome = holder.value();
-                ResourceLocation biomeID = holder.unwrapKey().get().location();
-
-                double biomeVariance = 1 / Math.max(1, 2 + biome.getModifiedClimateSettings().downfall() * 2);
-                double baseTemp = biome.getBaseTemperature();
-
-                // Get the biome's temperature, either overridden by config or calculated
-                // Start with biome override
-                Triplet<Double, Double, Temperature.Units> cTemp = ConfigSettings.BIOME_TEMPS.get().getOrDefault(biomeID,
-                                                                   new Triplet<>(baseTemp - biomeVariance, baseTemp + biomeVariance, Temperature.Units.MC));
-                Triplet<Double, Double, Temperature.Units> cOffset = ConfigSettings.BIOME_OFFSETS.get().getOrDefault(biomeID,
-                                                                     new Triplet<>(0d, 0d, Temperature.Units.MC));
-                Pair<Double, Double> configTemp = CSMath.addPairs(Pair.of(cTemp.getA(), cTemp.getB()), Pair.of(cOffset.getA(), cOffset.getB()));
-
-                // Biome temp at midnight (bottom of the sine wave)
-                double min = configTemp.getFirst();
-                // Biome temp at noon (top of the sine wave)
-                double max = configTemp.getSecond();
-
-                DimensionType dimension = level.dimensionType();
-                if (!dimension.hasCeiling())
-                {
-                    double altitude = entity.getY();
-                    double mid = (min + max) / 2;
-                    // Biome temp with time of day
-                    worldTemp += CSMath.blend(min, max, Math.sin(level.getDayTime() / (12000 / Math.PI)), -1, 1)
-                              // Altitude calculation
-                               + CSMath.blend(0, Math.min(-0.6, (min - mid) * 2), altitude, level.getSeaLevel(), level.getMaxBuildHeight());
-                }
-                // If dimension has ceiling (don't use time or altitude)
-                else worldTemp += CSMath.average(max, min);
+                double mid = (min + max) / 2;
+                // Biome temp with time of day
+                worldTemp += CSMath.blend(min, max, Math.sin(level.getDayTime() / (12000 / Math.PI)), -1, 1)
+                          // Altitude calculation
+                           + CSMath.blend(0, Math.min(-0.6, (min - mid) * 2), altitude, level.getSeaLevel(), level.getMaxBuildHeight());
             }
+            // If dimension has ceiling (don't use time or altitude)
+            else worldTemp += CSMath.average(max, min);
+        }
 
-            worldTemp /= Math.max(1, biomeCount);
-
-            // Add dimension offset, if present
-            Pair<Double, Temperature.Units> dimTempOffsetConf = ConfigSettings.DIMENSION_OFFSETS.get().get(dimensionID);
-            if (dimTempOffsetConf != null)
-            {   worldTemp += Temperature.convertUnits(dimTempOffsetConf.getFirst(), dimTempOffsetConf.getSecond(), Temperature.Units.MC, false);
-            }
+        worldTemp /= Math.max(1, biomeCount);
 
-            double finalWorldTemp = worldTemp;
-            return temp -> temp + finalWorldTemp;
-        }
-        catch (Exception e)
-        {   return temp -> temp;
+        // Add dimension offset, if present
+        Pair<Double, Temperature.Units> dimTempOffsetConf = ConfigSettings.DIMENSION_OFFSETS.get().get(dimensionID);
+        if (dimTempOffsetConf != null)
+        {   worldTemp += Temperature.convertUnits(dimTempOffsetConf.getFirst(), dimTempOffsetConf.getSecond(), Temperature.Units.MC, false);
         }
+
+        return worldTemp;
     }
 
     public String getID()
@@ -1,146 +1,252 @@
 package com.momosoftworks.coldsweat.api.temperature.modifier;
 
+import com.momosoftworks.coldsweat.ColdSweat;
 import com.momosoftworks.coldsweat.api.registry.BlockTempRegistry;
 import com.momosoftworks.coldsweat.api.temperature.block_temp.BlockTemp;
 import com.momosoftworks.coldsweat.api.util.Temperature;
 import com.momosoftworks.coldsweat.config.ConfigSettings;
 import com.momosoftworks.coldsweat.core.advancement.trigger.ModAdvancementTriggers;
 import com.momosoftworks.coldsweat.util.math.CSMath;
+import com.momosoftworks.coldsweat.util.world.BlockSnapshot;
+import com.momosoftworks.coldsweat.util.world.HeatSourceIndex;
+import com.momosoftworks.coldsweat.util.world.LevelTickCache;
+import com.momosoftworks.coldsweat.util.world.SpreadBlockingTable;
 import com.momosoftworks.coldsweat.util.world.WorldHelper;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.entity.LivingEntity;
-import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.state.BlockState;
-import net.minecraft.world.level.chunk.ChunkAccess;
-import net.minecraft.world.level.chunk.LevelChunkSection;
 import net.minecraft.world.phys.Vec3;
 import oshi.util.tuples.Triplet;
 
+import javax.annotation.Nullable;
 import java.util.*;
-import java.util.function.Function;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.DoubleUnaryOperator;
 
 public class BlockTempModifier extends TempModifier
 {
+    private static final ExecutorService RAY_WORKERS = Executors.newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors() / 2), runnable ->
+    {   Thread thread = new Thread(runnable, "Cold Sweat Temperature Worker");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Used when ConfigSettings.ASYNC_BLOCK_TEMPS is enabled
+    private PendingRays pending = null;
+    private DoubleUnaryOperator lastFunction = null;
+
     public BlockTempModifier() {}
 
     public BlockTempModifier(int range)
     {   this.getNBT().putInt("RangeOverride", range);
     }
 
-    Map<ChunkPos, ChunkAccess> chunks = new HashMap<>(16);
-
     @Override
-    public Function<Double, Double> calculate(LivingEntity entity, Temperature.Type type)
+    public DoubleUnaryOperator calculatePrimitive(LivingEntity entity, Temperature.Type type)
     {
-        Map<BlockTemp, Double> affectMap = new HashMap<>(128);
-        Map<BlockPos, BlockState> stateCache = new HashMap<>(4096);
-        List<Triplet<BlockPos, BlockTemp, Double>> triggers = new ArrayList<>(128);
-
         Level level = entity.level();
         int range = this.getNBT().contains("RangeOverride", 3) ? this.getNBT().getInt("RangeOverride") : ConfigSettings.BLOCK_RANGE.get();
+        List<HeatSource> sources = findSources(entity, level, range);
 
-        int entX = entity.blockPosition().getX();
-        int entY = entity.blockPosition().getY();
-        int entZ = entity.blockPosition().getZ();
-        BlockPos.MutableBlockPos blockpos = new BlockPos.MutableBlockPos();
-        int minBuildHeight = level.getMinBuildHeight();
+        // Temperature.getTemperatureAt() reuses one modifier per level for every position it's asked about.
+        // It calls this through updateAt(), which never advances ticksExisted, so it always calculates synchronously
+        if (!level.isClientSide && ConfigSettings.ASYNC_BLOCK_TEMPS.get() && !sources.isEmpty() && this.getTicksExisted() > 0)
+        {   return this.calculateAsync(entity, level, sources);
+        }
+        if (pending != null)
+        {   pending.counts().cancel(false);
+            pending = null;
+        }
+        lastFunction = null;
+        return this.accumulate(entity, level, sources, null);
+    }
 
-        boolean shouldTickAdvancements = this.getTicksExisted() % 20 == 0;
+    /**
+     * Casts the rays to the heat sources on a worker thread, using a {@link BlockSnapshot} of the area around the entity.<br>
+     * Results are applied on the first update after they finish, so this returns the last applied result in the meantime.
+     * If the rays take longer than {@link ConfigSettings#ASYNC_MAX_STALENESS} ticks, the server waits for them.
+     */
+    private DoubleUnaryOperator calculateAsync(LivingEntity entity, Level level, List<HeatSource> sources)
+    {
+        PendingRays pending = this.pending;
+        if (pending != null && pending.level() != level)
+        {   pending.counts().cancel(false);
+            pending = null;
+        }
+        if (pending != null && (pending.counts().isDone() || level.getGameTime() - pending.startTime() >= ConfigSettings.ASYNC_MAX_STALENESS.get()))
+        {
+            try
+            {   lastFunction = this.accumulate(entity, level, pending.sources(), pending.counts().join());
+            }
+            catch (Exception e)
+            {   ColdSweat.LOGGER.error("Failed to calculate block temperature asynchronously", e);
+                lastFunction = null;
+            }
+            pending = null;
+        }
+        if (pending == null)
+        {
+            BlockSnapshot snapshot = captureRayArea(entity, level, sources);
+            pending = new PendingRays(level, level.getGameTime(), sources,
+                                      CompletableFuture.supplyAsync(() -> countBlocking(sources, snapshot), RAY_WORKERS));
+        }
+        this.pending = pending;
+
+        // Nothing has been calculated yet
+        if (lastFunction == null)
+        {   lastFunction = this.accumulate(entity, level, sources, null);
+        }
+        return lastFunction;
+    }
 
-        for (int x = -range; x < range; x++)
+    /**
+     * Finds the blocks with a BlockTemp in range of the entity, and the point in the entity's BB closest to each one
+     */
+    private static List<HeatSource> findSources(LivingEntity entity, Level level, int range)
+    {
+        List<HeatSource> sources = new ArrayList<>();
+        LevelTickCache cache = LevelTickCache.get(level);
+        double playerRadius = entity.getBbWidth() / 2;
+
+        // Only visit blocks that have a BlockTemp, instead of every block in range
+        LongArrayList positions = HeatSourceIndex.get(level).getSourcesInRange(entity.blockPosition(), range);
+        for (int s = 0; s < positions.size(); s++)
         {
-            for (int z = -range; z < range; z++)
-            {
-                ChunkPos chunkPos = new ChunkPos((entX + x) >> 4, (entZ + z) >> 4);
-                ChunkAccess chunk = chunks.get(chunkPos);
-                if (chunk == null) chunks.put(chunkPos, chunk = WorldHelper.getChunk(level, chunkPos));
-                if (chunk == null) continue;
+            BlockPos blockpos = BlockPos.of(positions.getLong(s));
+            BlockState state = cache.getBlockState(blockpos.getX(), blockpos.getY(), blockpos.getZ());
 
-                for (int y = -range; y < range; y++)
-                {
-                    try
-                    {
-                        blockpos.set(entX + x, entY + y, entZ + z);
+            // The server-side index is updated a tick after blocks change, so it may be slightly out of date
+            if (!BlockTempRegistry.hasBlockTemp(state)) continue;
 
-                        BlockState state = stateCache.get(blockpos);
-                        if (state == null)
-                        {   LevelChunkSection section = WorldHelper.getChunkSection(chunk, blockpos.getY());
-                            state = section.getBlockState(blockpos.getX() & 15, blockpos.getY() & 15, blockpos.getZ() & 15);
-                            stateCache.put(blockpos.immutable(), state);
-                        }
+            // Get Vector positions of the centers of the source block and player
+            Vec3 pos = Vec3.atCenterOf(blockpos);
 
-                        if (state.isAir()) continue;
+            // Gets the closest point in the player's BB to the block
+            Vec3 playerClosest = new Vec3(CSMath.clamp(pos.x, entity.getX() - playerRadius, entity.getX() + playerRadius),
+                                          CSMath.clamp(pos.y, entity.getY(), entity.getY() + entity.getBbHeight()),
+                                          CSMath.clamp(pos.z, entity.getZ() - playerRadius, entity.getZ() + playerRadius));
 
-                        // Get the BlockTemp associated with the block
-                        List<BlockTemp> blockTemps = BlockTempRegistry.getBlockTempsFor(state);
+            // Get the BlockTemp associated with the block
+            sources.add(new HeatSource(blockpos, state, BlockTempRegistry.getBlockTempsFor(state), pos, playerClosest));
+        }
+        return sources;
+    }
 
-                        if (blockTemps.isEmpty() || (blockTemps.size() == 1 && blockTemps.contains(BlockTempRegistry.DEFAULT_BLOCK_TEMP))) continue;
+    /**
+     * Copies the sections that the rays to the heat sources can pass through.<br>
+     * Every ray starts in the entity's bounding box and ends at a source, so only the box around both is needed.
+     */
+    private static BlockSnapshot captureRayArea(LivingEntity entity, Level level, List<HeatSource> sources)
+    {
+        BlockPos.MutableBlockPos min = BlockPos.containing(entity.getBoundingBox().minX, entity.getBoundingBox().minY, entity.getBoundingBox().minZ).mutable();
+        BlockPos.MutableBlockPos max = BlockPos.containing(entity.getBoundingBox().maxX, entity.getBoundingBox().maxY, entity.getBoundingBox().maxZ).mutable();
+        for (int i = 0; i < sources.size(); i++)
+        {
+            BlockPos pos = sources.get(i).pos();
+            min.set(Math.min(min.getX(), pos.getX()), Math.min(min.getY(), pos.getY()), Math.min(min.getZ(), pos.getZ()));
+            max.set(Math.max(max.getX(), pos.getX()), Math.max(max.getY(), pos.getY()), Math.max(max.getZ(), pos.getZ()));
+        }
+        return BlockSnapshot.capture(level, min, max);
+    }
 
-                        // Get the amount that this block has affected the player so far
+    /**
+     * Counts the blocks between the entity and each heat source. Safe to call from any thread.<br>
+     * Rays that fail against the snapshot (i.e. a block whose shape needs its block entity) are marked with -1, and cast again in the level once the result is applied.
+     */
+    private static int[] countBlocking(List<HeatSource> sources, BlockSnapshot snapshot)
+    {
+        int[] counts = new int[sources.size()];
+        for (int i = 0; i < counts.length; i++)
+        {
+            HeatSource source = sources.get(i);
+            Direction direction = source.getRayDirection();
+            try
+            {   counts[i] = WorldHelper.forBlocksInRay(source.closest().x, source.closest().y, source.closest().z,
+                                                       source.center().x, source.center().y, source.center().z, snapshot::getSection,
+                                                       (rayState, bpos) -> SpreadBlockingTable.isSpreadBlocked(snapshot, rayState, bpos, direction, direction), 3);
+            }
+            catch (Exception e)
+            {   counts[i] = -1;
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Adds up the effects of the heat sources on the entity
+     * @param blockingCounts The number of blocks between the entity and each source, or null to cast the rays now.
+     *                       Rays with a count of -1 are also cast now.
+     */
+    private DoubleUnaryOperator accumulate(LivingEntity entity, Level level, List<HeatSource> sources, @Nullable int[] blockingCounts)
+    {
+        Map<BlockTemp, Double> affectMap = new HashMap<>(128);
+        List<Triplet<BlockPos, BlockTemp, Double>> triggers = new ArrayList<>(128);
+
+        boolean shouldTickAdvancements = this.getTicksExisted() % 20 == 0;
+
+        for (int s = 0; s < sources.size(); s++)
+        {
+            try
+            {
+                HeatSource source = sources.get(s);
+                List<BlockTemp> blockTemps = source.blockTemps();
+
+                // Get the amount that this block has affected the player so far
 
-                        // Is totalTemp within the bounds of any BlockTemp's min/max range?
-                        boolean isInTempRange = affectMap.isEmpty();
-                        if (!isInTempRange)
-                        {   for (Map.Entry<BlockTemp, Double> entry : affectMap.entrySet())
-                            {   BlockTemp key = entry.getKey();
-                                Double value = entry.getValue();
+                // Is totalTemp within the bounds of any BlockTemp's min/max range?
+                boolean isInTempRange = affectMap.isEmpty();
+                if (!isInTempRange)
+                {   for (Map.Entry<BlockTemp, Double> entry : affectMap.entrySet())
+                    {   BlockTemp key = entry.getKey();
+                        Double value = entry.getValue();
 
-                                if (!blockTemps.contains(key) || CSMath.isWithin(value, key.minEffect(), key.maxEffect()))
-                                {   isInTempRange = true;
-                                    break;
-                                }
-                            }
+                        if (!blockTemps.contains(key) || CSMath.isWithin(value, key.minEffect(), key.maxEffect()))
+                        {   isInTempRange = true;
+                            break;
                         }
-                        if (isInTempRange)
-                        {
-                            // Get Vector positions of the centers of the source block and player
-                            Vec3 pos = Vec3.atCenterOf(blockpos);
-
-                            // Gets the closest point in the player's BB to the block
-                            double playerRadius = entity.getBbWidth() / 2;
-                            Vec3 playerClosest = new Vec3(CSMath.clamp(pos.x, entity.getX() - playerRadius, entity.getX() + playerRadius),
-                                                          CSMath.clamp(pos.y, entity.getY(), entity.getY() + entity.getBbHeight()),
-                                                          CSMath.clamp(pos.z, entity.getZ() - playerRadius, entity.getZ() + playerRadius));
-
-                            // Cast a ray between the player and the block
-                            // Lessen the effect with each block between the player and the block
-                            int[] blocks = new int[1];
-                            Vec3 ray = pos.subtract(playerClosest);
-                            Direction direction = Direction.getNearest(ray.x, ray.y, ray.z);
-
-                            WorldHelper.forBlocksInRay(playerClosest, pos, level, chunk, stateCache,
-                            (rayState, bpos) ->
-                            {   if (!bpos.equals(blockpos) && WorldHelper.isSpreadBlocked(level, rayState, bpos, direction, direction))
-                                {   blocks[0]++;
-                                }
-                            }, 3);
-
-                            // Get the temperature of the block given the player's distance
-                            double distance = CSMath.getDistance(playerClosest, pos);
-
-                            for (int i = 0; i < blockTemps.size(); i++)
-                            {
-                                BlockTemp blockTemp = blockTemps.get(i);
-                                double tempToAdd = blockTemp.getTemperature(level, entity, state, blockpos, distance);
-
-                                // Store this block type's total effect on the player
-                                // Dampen the effect with each block between the player and the block
-                                double blockTempTotal = affectMap.getOrDefault(blockTemp, 0d) + tempToAdd / (blocks[0] + 1);
-                                if (blockTempTotal < blockTemp.minEffect() || blockTempTotal > blockTemp.maxEffect()) continue;
-                                affectMap.put(blockTemp, CSMath.clamp(blockTempTotal, blockTemp.minEffect(), blockTemp.maxEffect()));
-                                // Used to trigger advancements
-                                if (shouldTickAdvancements)
-                                {   triggers.add(new Triplet<>(blockpos, blockTemp, distance));
-                                }
-                            }
+                    }
+                }
+                if (isInTempRange)
+                {
+                    // Cast a ray between the player and the block
+                    // Lessen the effect with each block between the player and the block
+                    int blocks;
+                    if (blockingCounts != null && blockingCounts[s] >= 0)
+                    {   blocks = blockingCounts[s];
+                    }
+                    else
+                    {   Direction direction = source.getRayDirection();
+                        blocks = WorldHelper.forBlocksInRay(source.closest(), source.center(), level,
+                                                            (rayState, bpos) -> WorldHelper.isSpreadBlocked(level, rayState, bpos, direction, direction), 3);
+                    }
+
+                    // Get the temperature of the block given the player's distance
+                    double distance = CSMath.getDistance(source.closest(), source.center());
+
+                    for (int i = 0; i < blockTemps.size(); i++)
+                    {
+                        BlockTemp blockTemp = blockTemps.get(i);
+                        double tempToAdd = blockTemp.getTemperature(level, entity, source.state(), source.pos(), distance);
+
+                        // Store this block type's total effect on the player
+                        // Dampen the effect with each block between the player and the block
+                        double blockTempTotal = affectMap.getOrDefault(blockTemp, 0d) + tempToAdd / (blocks + 1);
+                        if (blockTempTotal < blockTemp.minEffect() || blockTempTotal > blockTemp.maxEffect()) continue;
+                        affectMap.put(blockTemp, CSMath.clamp(blockTempTotal, blockTemp.minEffect(), blockTemp.maxEffect()));
+                        // Used to trigger advancements
+                        if (shouldTickAdvancements)
+                        {   triggers.add(new Triplet<>(source.pos(), blockTemp, distance));
                         }
                     }
-                    catch (Exception ignored) {}
                 }
             }
+            catch (Exception ignored) {}
         }
         // Trigger advancements at every BlockPos with a BlockEffect attached to it
         if (entity instanceof ServerPlayer player && shouldTickAdvancements)
@@ -150,11 +256,6 @@ public class BlockTempModifier extends TempModifier
             }
         }
 
-        // Remove old chunks from the cache
-        while (chunks.size() >= 16)
-        {   chunks.remove(chunks.keySet().iterator().next());
-        }
-
         // Add the effects of all the blocks together and return the result
         return temp ->
         {
@@ -174,4 +275,14 @@ public class BlockTempModifier extends TempModifier
     {
         return "cold_sweat:blocks";
     }
-}
\ No newline at end of file
+
+    private record HeatSource(BlockPos pos, BlockState state, List<BlockTemp> blockTemps, Vec3 center, Vec3 closest)
+    {
+        Direction getRayDirection()
+        {   return Direction.getNearest(center.x - closest.x, center.y - closest.y, center.z - closest.z);
+        }
+    }
+
+    private record PendingRays(Level level, long startTime, List<HeatSource> sources, CompletableFuture<int[]> counts)
+    {}
+}
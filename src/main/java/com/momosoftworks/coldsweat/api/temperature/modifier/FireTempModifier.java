@@ -3,12 +3,12 @@ package com.momosoftworks.coldsweat.api.temperature.modifier;
 import com.momosoftworks.coldsweat.api.util.Temperature;
 import net.minecraft.world.entity.LivingEntity;
 
-import java.util.function.Function;
+import java.util.function.DoubleUnaryOperator;
 
 public class FireTempModifier extends TempModifier
 {
     @Override
-    protected Function<Double, Double> calculate(LivingEntity entity, Temperature.Type type)
+    protected DoubleUnaryOperator calculatePrimitive(LivingEntity entity, Temperature.Type type)
     {
         return temp -> entity.isOnFire() ? temp + 10 : temp;
     }
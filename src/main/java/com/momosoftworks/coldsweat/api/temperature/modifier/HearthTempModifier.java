@@ -6,7 +6,7 @@ import com.momosoftworks.coldsweat.util.math.CSMath;
 import com.momosoftworks.coldsweat.config.ColdSweatConfig;
 import net.minecraft.world.entity.LivingEntity;
 
-import java.util.function.Function;
+import java.util.function.DoubleUnaryOperator;
 
 public class HearthTempModifier extends TempModifier
 {
@@ -21,7 +21,7 @@ public class HearthTempModifier extends TempModifier
     }
 
     @Override
-    public Function<Double, Double> calculate(LivingEntity entity, Temperature.Type type)
+    public DoubleUnaryOperator calculatePrimitive(LivingEntity entity, Temperature.Type type)
     {
         double min = ConfigSettings.MIN_TEMP.get();
         double max = ConfigSettings.MAX_TEMP.get();
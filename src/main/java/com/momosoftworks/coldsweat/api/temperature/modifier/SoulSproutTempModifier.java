@@ -5,13 +5,13 @@ import com.momosoftworks.coldsweat.util.world.WorldHelper;
 import net.minecraft.core.particles.ParticleTypes;
 import net.minecraft.world.entity.LivingEntity;
 
-import java.util.function.Function;
+import java.util.function.DoubleUnaryOperator;
 
 public class SoulSproutTempModifier extends TempModifier
 {
 
     @Override
-    protected Function<Double, Double> calculate(LivingEntity entity, Temperature.Type type)
+    protected DoubleUnaryOperator calculatePrimitive(LivingEntity entity, Temperature.Type type)
     {
         if (Math.random() < 0.3 && entity.tickCount % 5 == 0)
         {
@@ -4,11 +4,19 @@ import com.momosoftworks.coldsweat.api.event.common.TempModifierEvent;
 import com.momosoftworks.coldsweat.api.event.core.TempModifierRegisterEvent;
 import com.momosoftworks.coldsweat.api.util.Temperature;
 import com.momosoftworks.coldsweat.core.init.TempModifierInit;
+import com.momosoftworks.coldsweat.util.EventHelper;
+import net.minecraft.core.BlockPos;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.level.Level;
 import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.eventbus.ListenerList;
+import net.minecraftforge.eventbus.api.EventListenerHelper;
 
+import javax.annotation.Nullable;
+import java.util.function.DoubleUnaryOperator;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * TempModifiers are applied to entities to dynamically change their temperature.<br>
@@ -25,9 +33,13 @@ public abstract class TempModifier
     private int expireTicks = -1;
     private int ticksExisted = 0;
     private int tickRate = 1;
+    private int lastUpdateTick = 0;
     private double lastInput = 0;
     private double lastOutput = 0;
-    private Function<Double, Double> function = temp -> temp;
+    private DoubleUnaryOperator function = DoubleUnaryOperator.identity();
+
+    private static final ListenerList PRE_LISTENERS = EventListenerHelper.getListenerList(TempModifierEvent.Calculate.Pre.class);
+    private static final ListenerList POST_LISTENERS = EventListenerHelper.getListenerList(TempModifierEvent.Calculate.Post.class);
 
     /**
      * Default constructor (REQUIRED for proper registration).<br>
@@ -41,28 +53,82 @@ public abstract class TempModifier
      * @param entity the entity that is being affected by the modifier.<br>
      * @return the new temperature.<br>
      */
-    protected abstract Function<Double, Double> calculate(LivingEntity entity, Temperature.Type type);
+    protected DoubleUnaryOperator calculatePrimitive(LivingEntity entity, Temperature.Type type)
+    {
+        // Adapter for TempModifiers that still implement the boxed calculate()
+        Function<Double, Double> function = this.calculate(entity, type);
+        return temp -> function.apply(temp);
+    }
+
+    /**
+     * Boxed version of {@link #calculatePrimitive(LivingEntity, Temperature.Type)}, kept for existing TempModifiers.<br>
+     * Only called if {@code calculatePrimitive()} is not overridden.
+     * @deprecated Boxes the temperature every time it is applied. Override {@link #calculatePrimitive(LivingEntity, Temperature.Type)} instead.
+     */
+    @Deprecated
+    protected Function<Double, Double> calculate(LivingEntity entity, Temperature.Type type)
+    {   throw new AbstractMethodError(this.getClass().getName() + " must override calculatePrimitive() or calculate()");
+    }
 
     /**
-     * Posts this TempModifier's {@link #calculate(LivingEntity, com.momosoftworks.coldsweat.api.util.Temperature.Type)} to the Forge event bus.<br>
+     * Posts this TempModifier's {@link #calculatePrimitive(LivingEntity, com.momosoftworks.coldsweat.api.util.Temperature.Type)} to the Forge event bus.<br>
      * Returns the stored value if this TempModifier has a tickRate set, and it is not the right tick.<br>
      * <br>
-     * @param temp the Temperature being fed into the {@link #calculate(LivingEntity, com.momosoftworks.coldsweat.api.util.Temperature.Type)} method.
+     * @param temp the Temperature being fed into the {@link #calculatePrimitive(LivingEntity, com.momosoftworks.coldsweat.api.util.Temperature.Type)} method.
      * @param entity the entity that is being affected by the modifier.
      */
     public final double update(double temp, LivingEntity entity, Temperature.Type type)
     {
-        TempModifierEvent.Calculate.Pre pre = new TempModifierEvent.Calculate.Pre(this, entity, temp);
-        MinecraftForge.EVENT_BUS.post(pre);
-
-        if (pre.isCanceled()) return pre.getTemperature();
-
-        this.function = this.calculate(entity, type);
+        lastUpdateTick = entity.tickCount;
+
+        // The events are only posted if something is listening for them
+        if (EventHelper.hasListeners(PRE_LISTENERS))
+        {
+            TempModifierEvent.Calculate.Pre pre = new TempModifierEvent.Calculate.Pre(this, entity, temp);
+            MinecraftForge.EVENT_BUS.post(pre);
+
+            if (pre.isCanceled()) return pre.getTemperature();
+            temp = pre.getTemperature();
+        }
+
+        this.function = this.calculatePrimitive(entity, type);
+        double result = this.getResult(temp);
+
+        if (EventHelper.hasListeners(POST_LISTENERS))
+        {
+            TempModifierEvent.Calculate.Post post = new TempModifierEvent.Calculate.Post(this, entity, result);
+            MinecraftForge.EVENT_BUS.post(post);
+            return post.getTemperature();
+        }
+        return result;
+    }
 
-        TempModifierEvent.Calculate.Post post = new TempModifierEvent.Calculate.Post(this, entity, this.getResult(pre.getTemperature()));
-        MinecraftForge.EVENT_BUS.post(post);
+    /**
+     * Calculates this TempModifier for a position rather than an entity, such as for {@link Temperature#getTemperatureAt}.<br>
+     * Uses {@link #calculateAt(Level, BlockPos, Temperature.Type)} if it is implemented. Otherwise (or if something is
+     * listening for {@link TempModifierEvent.Calculate}), this is calculated for the placeholder entity instead.
+     * @param placeholder Supplies an entity standing at the position
+     */
+    public final double updateAt(double temp, Level level, BlockPos pos, Temperature.Type type, Supplier<LivingEntity> placeholder)
+    {
+        DoubleUnaryOperator function = EventHelper.hasListeners(PRE_LISTENERS) || EventHelper.hasListeners(POST_LISTENERS)
+                                       ? null
+                                       : this.calculateAt(level, pos, type);
+        if (function == null)
+        {   return this.update(temp, placeholder.get(), type);
+        }
+        this.function = function;
+        return this.getResult(temp);
+    }
 
-        return post.getTemperature();
+    /**
+     * Position-based version of {@link #calculatePrimitive(LivingEntity, Temperature.Type)}, for TempModifiers that don't
+     * depend on an entity.<br>
+     * @return The function for the given position, or null if this TempModifier needs an entity
+     */
+    @Nullable
+    protected DoubleUnaryOperator calculateAt(Level level, BlockPos pos, Temperature.Type type)
+    {   return null;
     }
 
     /**
@@ -72,7 +138,7 @@ public abstract class TempModifier
     public final double getResult(double temp)
     {
         lastInput = temp;
-        return lastOutput = function.apply(temp);
+        return lastOutput = function.applyAsDouble(temp);
     }
 
     /**
@@ -96,12 +162,13 @@ public abstract class TempModifier
     }
 
     /**
-     * TempModifiers can be configured to run {@link TempModifier#calculate(LivingEntity, Temperature.Type)} at a specified interval.<br>
+     * TempModifiers can be configured to run {@link TempModifier#calculatePrimitive(LivingEntity, Temperature.Type)} at a specified interval.<br>
      * This is useful if the TempModifier is expensive to calculate, and you want to avoid it being called each tick.<br>
      * <br>
      * Every X ticks, the TempModifier's {@code getResult()} function will be called, then stored internally.<br>
      * Every other time {@code calculate()} is called, the stored value will be returned until X ticks have passed.<br>
      * (new TempModifiers ALWAYS run {@code getResult()} when they are called for the first time).<br>
+     * The tick each entity recalculates on is offset by the entity, so entities loaded together don't all recalculate at once.<br>
      * <br>
      * @param ticks the number of ticks between each call to {@code getResult()}.
      * @return this TempModifier instance (allows for in-line building).
@@ -115,6 +182,13 @@ public abstract class TempModifier
     {   return tickRate;
     }
 
+    /**
+     * @return The entity's {@code tickCount} when this TempModifier was last recalculated
+     */
+    public final int getLastUpdateTick()
+    {   return lastUpdateTick;
+    }
+
     /**
      * @return The Temperature this TempModifier was last given
      */
@@ -4,77 +4,98 @@ import com.mojang.datafixers.util.Pair;
 import com.momosoftworks.coldsweat.api.util.Temperature;
 import com.momosoftworks.coldsweat.config.ConfigSettings;
 import com.momosoftworks.coldsweat.util.math.CSMath;
+import com.momosoftworks.coldsweat.util.world.BiomeClimateCache;
+import com.momosoftworks.coldsweat.util.world.LevelTickCache;
 import com.momosoftworks.coldsweat.util.world.WorldHelper;
+import com.momosoftworks.coldsweat.util.world.WorldTempMemo;
 import net.minecraft.core.BlockPos;
-import net.minecraft.core.Holder;
-import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.LightLayer;
-import net.minecraft.world.level.biome.Biome;
-import net.minecraftforge.common.Tags;
-import oshi.util.tuples.Triplet;
 
+import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.function.Function;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Supplier;
 
 public class UndergroundTempModifier extends TempModifier
 {
     @Override
-    public Function<Double, Double> calculate(LivingEntity entity, Temperature.Type type)
+    public DoubleUnaryOperator calculatePrimitive(LivingEntity entity, Temperature.Type type)
+    {   return this.calculate(entity.level(), entity.blockPosition(), entity.getY(), entity::blockPosition);
+    }
+
+    @Override
+    protected DoubleUnaryOperator calculateAt(Level level, BlockPos pos, Temperature.Type type)
+    {   return this.calculate(level, pos, pos.getY() + 0.5, () -> pos);
+    }
+
+    /**
+     * @param lightPos Where sky light is read from when the function is applied
+     */
+    private DoubleUnaryOperator calculate(Level level, BlockPos playerPos, double playerY, Supplier<BlockPos> lightPos)
     {
-        if (entity.level().dimensionType().hasCeiling()) return temp -> temp;
+        if (level.dimensionType().hasCeiling()) return temp -> temp;
 
         double midTemp = (ConfigSettings.MAX_TEMP.get() + ConfigSettings.MIN_TEMP.get()) / 2;
-        BlockPos playerPos = entity.blockPosition();
-        Level level = entity.level();
+
+        // Entities close together share the result
+        CaveClimate climate = WorldTempMemo.get(level).getOrCalculate(this.getID(), playerPos, () -> calculateCaveClimate(level, playerPos, playerY));
+        if (climate == null) return temp -> temp;
+
+        return temp ->
+        {
+            double depthAvg = CSMath.weightedAverage(CSMath.blend(midTemp, temp, level.getBrightness(LightLayer.SKY, lightPos.get()), 0, 15),
+                                          CSMath.blend(temp, midTemp, climate.depth(), 4, 20), 1, 2);
+            return CSMath.blend(depthAvg, climate.biomeTempAvg(), climate.biomeCount(), 0, climate.samples());
+        };
+    }
+
+    /**
+     * @return The depth and cave biome temperature around the position, or null if none of it is in the world
+     */
+    @Nullable
+    private static CaveClimate calculateCaveClimate(Level level, BlockPos playerPos, double playerY)
+    {
+        LevelTickCache cache = LevelTickCache.get(level);
+        BiomeClimateCache climateCache = BiomeClimateCache.get(level);
 
         List<Pair<Double, Double>> depthTable = new ArrayList<>();
 
         double biomeTempTotal = 0;
         int caveBiomeCount = 0;
 
-        for (BlockPos pos : WorldHelper.getPositionCube(entity.blockPosition(), 5, 10))
+        for (BlockPos pos : WorldHelper.getPositionCube(playerPos, 5, 10))
         {
             if (!level.isInWorldBounds(pos)) continue;
 
-            depthTable.add(Pair.of(Math.max(0d, WorldHelper.getHeight(pos, level) - playerPos.getY()), Math.sqrt(pos.distSqr(playerPos))));
-            if (WorldHelper.getHeight(pos, level) <= entity.getY()) continue;
+            int height = cache.getHeight(pos.getX(), pos.getZ());
+            depthTable.add(Pair.of(Math.max(0d, height - playerPos.getY()), Math.sqrt(pos.distSqr(playerPos))));
+            if (height <= playerY) continue;
 
             // Get temperature of underground biomes
-            Holder<Biome> holder = level.getBiomeManager().getBiome(pos);
-            if (holder.is(Tags.Biomes.IS_UNDERGROUND))
-            {
-                if (holder.unwrapKey().isEmpty()) continue;
-                Biome biome = holder.value();
-                double baseTemp = biome.getBaseTemperature();
-                ResourceLocation biomeID = holder.unwrapKey().get().location();
-
-                Triplet<Double, Double, Temperature.Units> cTemp = ConfigSettings.BIOME_TEMPS.get().getOrDefault(biomeID, new Triplet<>(baseTemp, baseTemp, Temperature.Units.MC));
-                Triplet<Double, Double, Temperature.Units> cOffset = ConfigSettings.BIOME_OFFSETS.get().getOrDefault(biomeID, new Triplet<>(0d, 0d, Temperature.Units.MC));
-                double biomeTemp = CSMath.averagePair(Pair.of(cTemp.getA(), cTemp.getB()))
-                                 + CSMath.averagePair(Pair.of(cOffset.getA(), cOffset.getB()));
-
-                biomeTempTotal += biomeTemp;
+            BiomeClimateCache.BiomeClimate climate = climateCache.getClimate(pos);
+            if (climate != null && climate.underground())
+            {   biomeTempTotal += climate.average();
                 caveBiomeCount++;
             }
         }
-        if (depthTable.isEmpty()) return temp -> temp;
+        if (depthTable.isEmpty()) return null;
 
         double depth = CSMath.blend(0, CSMath.weightedAverage(depthTable), ConfigSettings.CAVE_INSULATION.get(), 0, 1);
         int biomeCount = Math.max(1, caveBiomeCount);
-        double biomeTempAvg = biomeTempTotal / biomeCount;
-        return temp ->
-        {
-            double depthAvg = CSMath.weightedAverage(CSMath.blend(midTemp, temp, entity.level().getBrightness(LightLayer.SKY, entity.blockPosition()), 0, 15),
-                                          CSMath.blend(temp, midTemp, depth, 4, 20), 1, 2);
-            return CSMath.blend(depthAvg, biomeTempAvg, biomeCount, 0, depthTable.size());
-        };
+        return new CaveClimate(depth, biomeTempTotal / biomeCount, biomeCount, depthTable.size());
     }
 
     public String getID()
     {
         return "cold_sweat:height";
     }
+
+    /**
+     * @param samples The number of positions sampled, which cave biomes are blended against
+     */
+    private record CaveClimate(double depth, double biomeTempAvg, int biomeCount, int samples)
+    {}
 }
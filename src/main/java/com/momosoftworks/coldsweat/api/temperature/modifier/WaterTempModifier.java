@@ -7,7 +7,7 @@ import com.momosoftworks.coldsweat.util.world.WorldHelper;
 import net.minecraft.core.particles.ParticleTypes;
 import net.minecraft.world.entity.LivingEntity;
 
-import java.util.function.Function;
+import java.util.function.DoubleUnaryOperator;
 
 public class WaterTempModifier extends TempModifier
 {
@@ -21,7 +21,7 @@ public class WaterTempModifier extends TempModifier
     }
 
     @Override
-    public Function<Double, Double> calculate(LivingEntity entity, Temperature.Type type)
+    public DoubleUnaryOperator calculatePrimitive(LivingEntity entity, Temperature.Type type)
     {
         double worldTemp = Temperature.get(entity, Temperature.Type.WORLD);
         double maxTemp = ConfigSettings.MAX_TEMP.get();
@@ -3,7 +3,7 @@ package com.momosoftworks.coldsweat.api.temperature.modifier;
 import com.momosoftworks.coldsweat.api.util.Temperature;
 import net.minecraft.world.entity.LivingEntity;
 
-import java.util.function.Function;
+import java.util.function.DoubleUnaryOperator;
 
 public class WaterskinTempModifier extends TempModifier
 {
@@ -18,7 +18,7 @@ public class WaterskinTempModifier extends TempModifier
     }
 
     @Override
-    public Function<Double, Double>  calculate(LivingEntity entity, Temperature.Type type)
+    public DoubleUnaryOperator calculatePrimitive(LivingEntity entity, Temperature.Type type)
     {
         return temp -> temp + this.getNBT().getDouble("temperature");
     }
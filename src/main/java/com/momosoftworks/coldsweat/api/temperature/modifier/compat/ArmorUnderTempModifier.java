@@ -4,7 +4,7 @@ import com.momosoftworks.coldsweat.api.temperature.modifier.TempModifier;
 import com.momosoftworks.coldsweat.api.util.Temperature;
 import net.minecraft.world.entity.LivingEntity;
 
-import java.util.function.Function;
+import java.util.function.DoubleUnaryOperator;
 
 /**
  * Special TempModifier class for Armor Underwear
@@ -14,7 +14,7 @@ public class ArmorUnderTempModifier extends TempModifier
     public ArmorUnderTempModifier() {}
 
     @Override
-    protected Function<Double, Double> calculate(LivingEntity entity, Temperature.Type type)
+    protected DoubleUnaryOperator calculatePrimitive(LivingEntity entity, Temperature.Type type)
     {
         /*CompoundTag nbt = this.getNBT();
         double bodyTemp = Temperature.get(entity, Temperature.Type.BODY);
@@ -8,7 +8,7 @@ import net.minecraft.world.entity.LivingEntity;
 import sereneseasons.api.season.ISeasonState;
 import sereneseasons.api.season.SeasonHelper;
 
-import java.util.function.Function;
+import java.util.function.DoubleUnaryOperator;
 
 /**
  * Special TempModifier class for Serene Seasons
@@ -18,7 +18,7 @@ public class SereneSeasonsTempModifier extends TempModifier
     public SereneSeasonsTempModifier() {}
 
     @Override
-    public Function<Double, Double> calculate(LivingEntity entity, Temperature.Type type)
+    public DoubleUnaryOperator calculatePrimitive(LivingEntity entity, Temperature.Type type)
     {
         if (entity.level().dimensionType().natural())
         {
@@ -3,26 +3,22 @@ package com.momosoftworks.coldsweat.api.util;
 import com.momosoftworks.coldsweat.ColdSweat;
 import com.momosoftworks.coldsweat.api.event.common.TempModifierEvent;
 import com.momosoftworks.coldsweat.api.registry.TempModifierRegistry;
-import com.momosoftworks.coldsweat.api.temperature.modifier.BiomeTempModifier;
-import com.momosoftworks.coldsweat.api.temperature.modifier.BlockTempModifier;
-import com.momosoftworks.coldsweat.api.temperature.modifier.UndergroundTempModifier;
 import com.momosoftworks.coldsweat.api.temperature.modifier.TempModifier;
 import com.momosoftworks.coldsweat.common.capability.EntityTempManager;
 import com.momosoftworks.coldsweat.common.capability.ITemperatureCap;
 import com.momosoftworks.coldsweat.common.capability.PlayerTempCap;
+import com.momosoftworks.coldsweat.common.capability.TempModifierList;
+import com.momosoftworks.coldsweat.common.capability.TempUpdateScheduler;
 import com.momosoftworks.coldsweat.core.network.ColdSweatPacketHandler;
 import com.momosoftworks.coldsweat.core.network.message.TempModifiersSyncMessage;
 import com.momosoftworks.coldsweat.core.network.message.TemperatureSyncMessage;
-import com.momosoftworks.coldsweat.util.compat.CompatManager;
 import com.momosoftworks.coldsweat.util.math.CSMath;
 import com.momosoftworks.coldsweat.util.math.InterruptableStreamer;
-import com.momosoftworks.coldsweat.util.serialization.ListBuilder;
+import com.momosoftworks.coldsweat.util.world.TemperatureProbe;
+import com.momosoftworks.coldsweat.util.world.WorldTempMemo;
 import net.minecraft.core.BlockPos;
-import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.level.ServerPlayer;
-import net.minecraft.world.entity.EntityType;
 import net.minecraft.world.entity.LivingEntity;
-import net.minecraft.world.entity.monster.Silverfish;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.level.Level;
 import net.minecraftforge.common.MinecraftForge;
@@ -110,8 +106,8 @@ public class Temperature
         {
             if (modifier == null) continue;
 
-            double newTemp = entity.tickCount % modifier.getTickRate() == 0 || modifier.getTicksExisted() == 0
-                    ? modifier.update(temp2, entity, type)
+            double newTemp = TempUpdateScheduler.isDue(entity, modifier)
+                    ? TempUpdateScheduler.update(modifier, temp2, entity, type)
                     : modifier.getResult(temp2);
             if (!Double.isNaN(newTemp))
             {   temp2 = newTemp;
@@ -127,19 +123,27 @@ public class Temperature
      */
     public static double apply(double temp, @Nonnull LivingEntity entity, Type type, @Nonnull Collection<TempModifier> modifiers)
     {
-        return apply(temp, entity, type, modifiers.toArray(new TempModifier[0]));
+        // Capabilities cache their modifier arrays, so they don't need to be copied
+        return apply(temp, entity, type, modifiers instanceof TempModifierList list
+                                         ? list.getArray()
+                                         : modifiers.toArray(new TempModifier[0]));
     }
 
-    static Map<ResourceLocation, Silverfish> DUMMIES = new HashMap<>();
+    /**
+     * @return The world temperature at the given position. Biome and underground temperatures are shared with nearby
+     * entities through {@link WorldTempMemo}.
+     * @see TemperatureProbe
+     */
     public static double getTemperatureAt(BlockPos pos, Level level)
-    {
-        LivingEntity dummy = DUMMIES.computeIfAbsent(level.dimension().location(), dim -> new Silverfish(EntityType.SILVERFISH, level));
-        dummy.setPos(CSMath.getCenterPos(pos));
-        return apply(0, dummy, Type.WORLD, ListBuilder.<TempModifier>begin(new BiomeTempModifier(9))
-                                                      .addIf(CompatManager.isSereneSeasonsLoaded(),
-                                                          () -> TempModifierRegistry.getEntryFor("sereneseasons:season").orElse(null))
-                                                      .add(new UndergroundTempModifier(),
-                                                           new BlockTempModifier()).build());
+    {   return TemperatureProbe.get(level).getTemperature(pos);
+    }
+
+    /**
+     * Batched version of {@link #getTemperatureAt(BlockPos, Level)}
+     * @return The world temperature at each of the given positions, in the same order
+     */
+    public static double[] getTemperaturesAt(List<BlockPos> positions, Level level)
+    {   return TemperatureProbe.get(level).getTemperatures(positions);
     }
 
     /**
@@ -379,24 +383,40 @@ public class Temperature
     }
 
     public static void updateTemperature(LivingEntity entity, ITemperatureCap cap, boolean instant)
+    {   updateTemperature(entity, TemperatureSyncMessage.ALL_TYPES, instant);
+    }
+
+    /**
+     * Queues the entity's temperatures to be synced to the client at the end of the tick.<br>
+     * Updates queued for the same entity in the same tick are sent as one message.
+     * @param types The temperature types to sync, as bits of {@link Type#ordinal()}
+     */
+    public static void updateTemperature(LivingEntity entity, int types, boolean instant)
     {
         if (!entity.level().isClientSide)
-        {
-            ColdSweatPacketHandler.INSTANCE.send(entity instanceof Player player
-                            ? PacketDistributor.PLAYER.with(() -> (ServerPlayer) player)
-                            : PacketDistributor.TRACKING_ENTITY_AND_SELF.with(() -> entity),
-            new TemperatureSyncMessage(entity, cap.serializeTemps(), instant));
+        {   EntityTempManager.queueTemperatureSync(entity, types, instant);
         }
     }
 
     public static void updateModifiers(LivingEntity entity, ITemperatureCap cap)
+    {   updateModifiers(entity, cap, false);
+    }
+
+    /**
+     * Syncs the entity's TempModifiers to the client, if any have changed since the last sync
+     * @param force If true, all modifiers are sent, even if none have changed
+     */
+    public static void updateModifiers(LivingEntity entity, ITemperatureCap cap, boolean force)
     {
         if (!entity.level().isClientSide)
         {
+            TempModifiersSyncMessage message = TempModifiersSyncMessage.create(entity, cap, force);
+            if (message == null) return;
+
             ColdSweatPacketHandler.INSTANCE.send(entity instanceof Player player
                             ? PacketDistributor.PLAYER.with(() -> (ServerPlayer) player)
                             : PacketDistributor.TRACKING_ENTITY.with(() -> entity),
-            new TempModifiersSyncMessage(entity, cap.serializeModifiers()));
+            message);
         }
     }
 
@@ -1,32 +1,26 @@
 package com.momosoftworks.coldsweat.client.event;
 
-import com.google.common.collect.Maps;
-import com.google.common.collect.Sets;
 import com.mojang.blaze3d.systems.RenderSystem;
 import com.mojang.blaze3d.vertex.PoseStack;
 import com.mojang.blaze3d.vertex.VertexConsumer;
 import com.mojang.datafixers.util.Pair;
+import com.momosoftworks.coldsweat.client.renderer.HearthOutline;
 import com.momosoftworks.coldsweat.common.blockentity.HearthBlockEntity;
 import com.momosoftworks.coldsweat.common.event.HearthSaveDataHandler;
 import com.momosoftworks.coldsweat.config.ClientSettingsConfig;
 import com.momosoftworks.coldsweat.util.math.CSMath;
-import com.momosoftworks.coldsweat.util.world.WorldHelper;
+import com.momosoftworks.coldsweat.util.world.HearthCoverageIndex;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.Util;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.multiplayer.ClientLevel;
 import net.minecraft.client.renderer.GameRenderer;
-import net.minecraft.client.renderer.LevelRenderer;
 import net.minecraft.client.renderer.MultiBufferSource;
 import net.minecraft.client.renderer.RenderType;
 import net.minecraft.client.renderer.culling.Frustum;
 import net.minecraft.core.BlockPos;
-import net.minecraft.core.Direction;
-import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.entity.player.Player;
-import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.Level;
-import net.minecraft.world.level.block.entity.BlockEntity;
-import net.minecraft.world.level.chunk.ChunkAccess;
-import net.minecraft.world.phys.AABB;
 import net.minecraft.world.phys.Vec3;
 import net.minecraft.world.phys.shapes.Shapes;
 import net.minecraftforge.api.distmarker.Dist;
@@ -36,18 +30,17 @@ import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod;
 import org.joml.Matrix3f;
 import org.joml.Matrix4f;
-import org.joml.Vector3f;
-import org.joml.Vector4f;
 
-import java.util.*;
-import java.util.function.BiConsumer;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Mod.EventBusSubscriber(Dist.CLIENT)
 public class HearthDebugRenderer
 {
-    public static Map<BlockPos, Map<BlockPos, Collection<Direction>>> HEARTH_LOCATIONS = new HashMap<>();
+    public static Map<BlockPos, HearthOutline> HEARTH_OUTLINES = new HashMap<>();
+    // The coverage each outline was (or is being) built from
+    private static final Map<BlockPos, long[]> OUTLINE_SOURCES = new HashMap<>();
 
     @SubscribeEvent
     public static void onLevelRendered(RenderLevelStageEvent event)
@@ -75,110 +68,34 @@ public class HearthDebugRenderer
             Matrix4f matrix4f = ps.last().pose();
             Matrix3f matrix3f = ps.last().normal();
 
-            // Points to draw lines
-            BiConsumer<Vector3f, Vector4f> nw = (pos, color) -> {
-                vertexes.vertex(matrix4f, pos.x(), pos.y(), pos.z()).color(color.x(), color.y(), color.z(), color.w()).normal(matrix3f, 0, 1, 0).endVertex();
-                vertexes.vertex(matrix4f, pos.x(), pos.y()+1, pos.z()).color(color.x(), color.y(), color.z(), color.w()).normal(matrix3f, 0, 1, 0).endVertex();
-            };
-            BiConsumer<Vector3f, Vector4f> ne = (pos, color) -> {
-                vertexes.vertex(matrix4f, pos.x()+1, pos.y(), pos.z()).color(color.x(), color.y(), color.z(), color.w()).normal(matrix3f, 0, 1, 0).endVertex();
-                vertexes.vertex(matrix4f, pos.x()+1, pos.y()+1, pos.z()).color(color.x(), color.y(), color.z(), color.w()).normal(matrix3f, 0, 1, 0).endVertex();
-            };
-            BiConsumer<Vector3f, Vector4f> sw = (pos, color) -> {
-                vertexes.vertex(matrix4f, pos.x(), pos.y(), pos.z()+1).color(color.x(), color.y(), color.z(), color.w()).normal(matrix3f, 0, -1, 0).endVertex();
-                vertexes.vertex(matrix4f, pos.x(), pos.y()+1, pos.z()+1).color(color.x(), color.y(), color.z(), color.w()).normal(matrix3f, 0, -1, 0).endVertex();
-            };
-            BiConsumer<Vector3f, Vector4f> se = (pos, color) -> {
-                vertexes.vertex(matrix4f, pos.x()+1, pos.y(), pos.z()+1).color(color.x(), color.y(), color.z(), color.w()).normal(matrix3f, 0, 1, 0).endVertex();
-                vertexes.vertex(matrix4f, pos.x()+1, pos.y()+1, pos.z()+1).color(color.x(), color.y(), color.z(), color.w()).normal(matrix3f, 0, 1, 0).endVertex();
-            };
-            BiConsumer<Vector3f, Vector4f> nu = (pos, color) -> {
-                vertexes.vertex(matrix4f, pos.x(), pos.y()+1, pos.z()).color(color.x(), color.y(), color.z(), color.w()).normal(matrix3f, -1, 0, 0).endVertex();
-                vertexes.vertex(matrix4f, pos.x()+1, pos.y()+1, pos.z()).color(color.x(), color.y(), color.z(), color.w()).normal(matrix3f, -1, 0, 0).endVertex();
-            };
-            BiConsumer<Vector3f, Vector4f> nd = (pos, color) -> {
-                vertexes.vertex(matrix4f, pos.x(), pos.y(), pos.z()).color(color.x(), color.y(), color.z(), color.w()).normal(matrix3f, 1, 0, 0).endVertex();
-                vertexes.vertex(matrix4f, pos.x()+1, pos.y(), pos.z()).color(color.x(), color.y(), color.z(), color.w()).normal(matrix3f, 1, 0, 0).endVertex();
-            };
-            BiConsumer<Vector3f, Vector4f> su = (pos, color) -> {
-                vertexes.vertex(matrix4f, pos.x(), pos.y()+1, pos.z()+1).color(color.x(), color.y(), color.z(), color.w()).normal(matrix3f, 1, 0, 0).endVertex();
-                vertexes.vertex(matrix4f, pos.x()+1, pos.y()+1, pos.z()+1).color(color.x(), color.y(), color.z(), color.w()).normal(matrix3f, 1, 0, 0).endVertex();
-            };
-            BiConsumer<Vector3f, Vector4f> sd = (pos, color) -> {
-                vertexes.vertex(matrix4f, pos.x(), pos.y(), pos.z()+1).color(color.x(), color.y(), color.z(), color.w()).normal(matrix3f, 1, 0, 0).endVertex();
-                vertexes.vertex(matrix4f, pos.x()+1, pos.y(), pos.z()+1).color(color.x(), color.y(), color.z(), color.w()).normal(matrix3f, 1, 0, 0).endVertex();
-            };
-            BiConsumer<Vector3f, Vector4f> eu = (pos, color) -> {
-                vertexes.vertex(matrix4f, pos.x()+1, pos.y()+1, pos.z()).color(color.x(), color.y(), color.z(), color.w()).normal(matrix3f, 0, 0, 1).endVertex();
-                vertexes.vertex(matrix4f, pos.x()+1, pos.y()+1, pos.z()+1).color(color.x(), color.y(), color.z(), color.w()).normal(matrix3f, 0, 0, 1).endVertex();
-            };
-            BiConsumer<Vector3f, Vector4f> ed = (pos, color) -> {
-                vertexes.vertex(matrix4f, pos.x()+1, pos.y(), pos.z()).color(color.x(), color.y(), color.z(), color.w()).normal(matrix3f, 0, 0, -1).endVertex();
-                vertexes.vertex(matrix4f, pos.x()+1, pos.y(), pos.z()+1).color(color.x(), color.y(), color.z(), color.w()).normal(matrix3f, 0, 0, -1).endVertex();
-            };
-            BiConsumer<Vector3f, Vector4f> wu = (pos, color) -> {
-                vertexes.vertex(matrix4f, pos.x(), pos.y()+1, pos.z()).color(color.x(), color.y(), color.z(), color.w()).normal(matrix3f, 0, 0, 1).endVertex();
-                vertexes.vertex(matrix4f, pos.x(), pos.y()+1, pos.z()+1).color(color.x(), color.y(), color.z(), color.w()).normal(matrix3f, 0, 0, 1).endVertex();
-            };
-            BiConsumer<Vector3f, Vector4f> wd = (pos, color) -> {
-                vertexes.vertex(matrix4f, pos.x(), pos.y(), pos.z()).color(color.x(), color.y(), color.z(), color.w()).normal(matrix3f, 0, 0, 1).endVertex();
-                vertexes.vertex(matrix4f, pos.x(), pos.y(), pos.z()+1).color(color.x(), color.y(), color.z(), color.w()).normal(matrix3f, 0, 0, 1).endVertex();
-            };
-
-            ChunkAccess workingChunk = null;
             float viewDistance = Minecraft.getInstance().options.renderDistance().get() * 2f;
+            float r = 1f;
+            float g = 0.7f;
+            float b = 0.6f;
 
-            for (Map.Entry<BlockPos, Map<BlockPos, Collection<Direction>>> entry : HEARTH_LOCATIONS.entrySet())
+            for (Map.Entry<BlockPos, HearthOutline> entry : HEARTH_OUTLINES.entrySet())
             {
                 if (HearthSaveDataHandler.DISABLED_HEARTHS.contains(Pair.of(entry.getKey(), level.dimension().location().toString()))) continue;
 
-                Map<BlockPos, Collection<Direction>> points = entry.getValue();
-                for (Map.Entry<BlockPos, Collection<Direction>> pair : points.entrySet())
+                for (HearthOutline.Section section : entry.getValue().getSections())
                 {
-                    BlockPos pos = pair.getKey();
-                    Collection<Direction> directions = pair.getValue();
+                    if (!frustum.isVisible(section.bounds())) continue;
 
-                    float x = pos.getX();
-                    float y = pos.getY();
-                    float z = pos.getZ();
-
-                    float r = 1f;
-                    float g = 0.7f;
-                    float b = 0.6f;
-
-                    float renderAlpha = CSMath.blend(1f, 0f, (float) CSMath.getDistance(player, x + 0.5f, y + 0.5f, z + 0.5f), 5, viewDistance);
-
-                    if (renderAlpha > 0.01f && frustum.isVisible(new AABB(pos)))
+                    float[] lines = section.lines();
+                    for (int i = 0; i < lines.length; i += 6)
                     {
-                        ChunkPos chunkPos = new ChunkPos(pos);
-                        if (workingChunk == null || !workingChunk.getPos().equals(chunkPos))
-                            workingChunk = WorldHelper.getChunk(level, pos);
-                        if (workingChunk == null) continue;
-
-                        if (workingChunk.getBlockState(pos).getShape(level, pos).equals(Shapes.block()))
-                        {   LevelRenderer.renderLineBox(ps, vertexes, x, y, z, x + 1, y + 1, z + 1, r, g, b, renderAlpha);
-                            continue;
-                        }
-
-                        if (directions.size() == 6) continue;
-
-                        Set<BiConsumer<Vector3f, Vector4f>> lines = Sets.newHashSet(nw, ne, sw, se, nu, nd, su, sd, eu, ed, wu, wd);
-
-                        // Remove the lines if another point is on the adjacent face
-                        if (directions.contains(Direction.DOWN))
-                            Stream.of(nd, sd, ed, wd).forEach(lines::remove);
-                        if (directions.contains(Direction.UP))
-                            Stream.of(nu, su, eu, wu).forEach(lines::remove);
-                        if (directions.contains(Direction.NORTH))
-                            Stream.of(nw, ne, nu, nd).forEach(lines::remove);
-                        if (directions.contains(Direction.SOUTH))
-                            Stream.of(sw, se, su, sd).forEach(lines::remove);
-                        if (directions.contains(Direction.WEST))
-                            Stream.of(nw, sw, wu, wd).forEach(lines::remove);
-                        if (directions.contains(Direction.EAST))
-                            Stream.of(ne, se, eu, ed).forEach(lines::remove);
-
-                        lines.forEach(line -> line.accept(new Vector3f(x, y, z), new Vector4f(r, g, b, renderAlpha)));
+                        float x1 = lines[i], y1 = lines[i + 1], z1 = lines[i + 2];
+                        float x2 = lines[i + 3], y2 = lines[i + 4], z2 = lines[i + 5];
+
+                        float renderAlpha = CSMath.blend(1f, 0f, (float) CSMath.getDistance(player, (x1 + x2) / 2, (y1 + y2) / 2, (z1 + z2) / 2), 5, viewDistance);
+                        if (renderAlpha <= 0.01f) continue;
+
+                        // Lines are axis-aligned, so the normal is just the axis they run along
+                        float nx = Math.signum(x2 - x1);
+                        float ny = Math.signum(y2 - y1);
+                        float nz = Math.signum(z2 - z1);
+                        vertexes.vertex(matrix4f, x1, y1, z1).color(r, g, b, renderAlpha).normal(matrix3f, nx, ny, nz).endVertex();
+                        vertexes.vertex(matrix4f, x2, y2, z2).color(r, g, b, renderAlpha).normal(matrix3f, nx, ny, nz).endVertex();
                     }
                 }
             }
@@ -196,32 +113,38 @@ public class HearthDebugRenderer
         && level.getGameTime() % 20 == 0 && Minecraft.getInstance().options.renderDebug
         && ClientSettingsConfig.getInstance().isHearthDebugEnabled())
         {
-            for (Pair<BlockPos, ResourceLocation> entry : HearthSaveDataHandler.HEARTH_POSITIONS)
+            for (HearthBlockEntity hearth : HearthCoverageIndex.get(level).getHearths())
             {
-                if (!level.dimension().location().equals(entry.getSecond())) continue;
-
-                BlockPos pos = entry.getFirst();
-                BlockEntity blockEntity = level.getBlockEntity(pos);
-                if (blockEntity instanceof HearthBlockEntity hearth)
+                BlockPos pos = hearth.getBlockPos();
+                // The coverage's array is replaced whenever it changes
+                long[] blocks = hearth.getCoverage().getArray();
+                if (OUTLINE_SOURCES.get(pos) == blocks) continue;
+                OUTLINE_SOURCES.put(pos, blocks);
+
+                // Block shapes have to be read on this thread
+                LongOpenHashSet fullBlocks = new LongOpenHashSet();
+                BlockPos.MutableBlockPos blockPos = new BlockPos.MutableBlockPos();
+                for (long block : blocks)
                 {
-                    Set<BlockPos> lookup = hearth.getPathLookup();
-
-                    Map<BlockPos, Collection<Direction>> pathMap = HEARTH_LOCATIONS.computeIfAbsent(pos, k -> Maps.newHashMap());
-                    if (pathMap.size() != lookup.size())
-                    {
-                        HEARTH_LOCATIONS.put(pos, lookup.stream().map(bp ->
-                        {
-                            ArrayList<Direction> dirs = new ArrayList<>();
-                            for (Direction dir : Direction.values())
-                            {
-                                if (lookup.contains(bp.relative(dir)))
-                                    dirs.add(dir);
-                            }
-                            return Map.entry(bp, dirs);
-                        }).collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> b, Maps::newHashMap)));
+                    blockPos.set(block);
+                    if (level.getBlockState(blockPos).getShape(level, blockPos).equals(Shapes.block()))
+                    {   fullBlocks.add(block);
                     }
                 }
+                CompletableFuture.supplyAsync(() -> HearthOutline.build(blocks, fullBlocks), Util.backgroundExecutor())
+                .thenAcceptAsync(outline ->
+                {
+                    // Skip outlines that are out of date, or for Hearths that were removed
+                    if (OUTLINE_SOURCES.get(pos) == blocks)
+                    {   HEARTH_OUTLINES.put(pos, outline);
+                    }
+                }, Minecraft.getInstance());
             }
         }
     }
+
+    public static void removeHearth(BlockPos pos)
+    {   HEARTH_OUTLINES.remove(pos);
+        OUTLINE_SOURCES.remove(pos);
+    }
 }
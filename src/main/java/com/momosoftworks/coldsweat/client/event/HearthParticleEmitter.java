@@ -0,0 +1,154 @@
+package com.momosoftworks.coldsweat.client.event;
+
+import com.momosoftworks.coldsweat.common.blockentity.HearthBlockEntity;
+import com.momosoftworks.coldsweat.config.ClientSettingsConfig;
+import com.momosoftworks.coldsweat.core.init.ParticleTypesInit;
+import com.momosoftworks.coldsweat.util.math.CSMath;
+import com.momosoftworks.coldsweat.util.world.HearthCoverageIndex;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.ParticleStatus;
+import net.minecraft.client.multiplayer.ClientLevel;
+import net.minecraft.core.BlockPos;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.phys.Vec3;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.client.event.CustomizeGuiOverlayEvent;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.Collection;
+
+/**
+ * Spawns the air particles in the areas covered by Hearths.<br>
+ * Each Hearth picks a few random blocks from its coverage every tick, based on how many blocks it covers.
+ * The total for all Hearths is limited by a budget that scales with the particle setting, and particles fade out with distance from the camera.<br>
+ * <br>
+ * The debug screen shows the particles spawned per second next to the frame time, to measure their cost.
+ */
+@Mod.EventBusSubscriber(Dist.CLIENT)
+public class HearthParticleEmitter
+{
+    private static final RandomSource RANDOM = RandomSource.create();
+
+    // Particles per covered block per tick
+    private static final float BLOCK_RATE = 0.0008f;
+    // Most particles one Hearth spawns per tick
+    private static final float HEARTH_LIMIT = 1.6f;
+    // Most particles all Hearths spawn per tick, when particles are set to "All"
+    private static final int TICK_BUDGET = 16;
+    // Particles become rarer between these distances from the camera, and stop past the end
+    private static final double FALLOFF_START = 16;
+    private static final double FALLOFF_END = 64;
+    // Tries to find an open block for each particle, since the coverage also holds the walls the Hearth spread into
+    private static final int SAMPLE_ATTEMPTS = 4;
+
+    private static int spawnedThisSecond = 0;
+    private static int spawnedLastSecond = 0;
+
+    @SubscribeEvent
+    public static void onClientTick(TickEvent.ClientTickEvent event)
+    {
+        Minecraft mc = Minecraft.getInstance();
+        ClientLevel level = mc.level;
+        if (event.phase != TickEvent.Phase.END || level == null || mc.isPaused()) return;
+
+        if (level.getGameTime() % 20 == 0)
+        {   spawnedLastSecond = spawnedThisSecond;
+            spawnedThisSecond = 0;
+        }
+
+        int budget = getBudget(mc.options.particles().get());
+        // The debug renderer already shows the covered area
+        if (budget == 0 || mc.options.renderDebug && ClientSettingsConfig.getInstance().isHearthDebugEnabled()) return;
+
+        Collection<HearthBlockEntity> hearths = HearthCoverageIndex.get(level).getHearths();
+        float demand = 0;
+        for (HearthBlockEntity hearth : hearths)
+        {
+            if (hearth.showsAirParticles())
+            {   demand += getDemand(hearth);
+            }
+        }
+        if (demand == 0) return;
+
+        // Share the budget between Hearths in proportion to their size
+        float scale = Math.min(1, budget / demand);
+        Vec3 camera = mc.gameRenderer.getMainCamera().getPosition();
+        for (HearthBlockEntity hearth : hearths)
+        {
+            if (hearth.showsAirParticles())
+            {   emit(level, hearth, getDemand(hearth) * scale, camera);
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public static void onDebugText(CustomizeGuiOverlayEvent.DebugText event)
+    {
+        Minecraft mc = Minecraft.getInstance();
+        if (mc.level != null && !HearthCoverageIndex.get(mc.level).getHearths().isEmpty())
+        {
+            event.getLeft().add(String.format("Hearth Particles: %d/s (max %d/s), Frame Time: %.2f ms",
+                                              spawnedLastSecond, getBudget(mc.options.particles().get()) * 20, 1000f / Math.max(1, mc.getFps())));
+        }
+    }
+
+    private static int getBudget(ParticleStatus status)
+    {
+        return switch (status)
+        {
+            case ALL -> TICK_BUDGET;
+            case DECREASED -> TICK_BUDGET / 4;
+            case MINIMAL -> 0;
+        };
+    }
+
+    private static float getDemand(HearthBlockEntity hearth)
+    {   return Math.min(HEARTH_LIMIT, hearth.getCoverage().size() * BLOCK_RATE);
+    }
+
+    private static void emit(ClientLevel level, HearthBlockEntity hearth, float amount, Vec3 camera)
+    {
+        long[] blocks = hearth.getCoverage().getArray();
+        if (blocks.length == 0) return;
+
+        // Round randomly, so fractions of a particle still add up over time
+        int count = (int) amount + (RANDOM.nextFloat() < amount % 1 ? 1 : 0);
+        BlockPos.MutableBlockPos blockPos = new BlockPos.MutableBlockPos();
+        for (int i = 0; i < count; i++)
+        {
+            long pos = findOpenBlock(level, blocks, blockPos);
+            if (pos == Long.MAX_VALUE) continue;
+
+            double x = BlockPos.getX(pos) + RANDOM.nextDouble();
+            double y = BlockPos.getY(pos) + RANDOM.nextDouble();
+            double z = BlockPos.getZ(pos) + RANDOM.nextDouble();
+
+            double distance = Math.sqrt(camera.distanceToSqr(x, y, z));
+            if (RANDOM.nextDouble() < CSMath.blend(0, 1, distance, FALLOFF_START, FALLOFF_END))
+            {   continue;
+            }
+            double xm = RANDOM.nextFloat() / 20 - 0.025f;
+            double zm = RANDOM.nextFloat() / 20 - 0.025f;
+            level.addParticle(ParticleTypesInit.HEARTH_AIR.get(), false, x, y, z, xm, 0, zm);
+            spawnedThisSecond++;
+        }
+    }
+
+    /**
+     * @return A random covered block without collision, or {@link Long#MAX_VALUE} if none was found
+     */
+    private static long findOpenBlock(ClientLevel level, long[] blocks, BlockPos.MutableBlockPos blockPos)
+    {
+        for (int attempt = 0; attempt < SAMPLE_ATTEMPTS; attempt++)
+        {
+            long pos = blocks[RANDOM.nextInt(blocks.length)];
+            blockPos.set(pos);
+            if (level.getBlockState(blockPos).getCollisionShape(level, blockPos).isEmpty())
+            {   return pos;
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+}
@@ -0,0 +1,131 @@
+package com.momosoftworks.coldsweat.client.renderer;
+
+import it.unimi.dsi.fastutil.floats.FloatArrayList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.phys.AABB;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The lines outlining the area covered by a Hearth, as drawn by the Hearth debug renderer.<br>
+ * An edge of a covered block is outlined if both faces next to it are exposed, or on every edge if the block is a full cube.
+ * Edges that continue each other in a straight line are merged, and lines are grouped by chunk section so they can be culled together.<br>
+ * <br>
+ * Building doesn't read the level or touch the GPU, so it can be done off-thread, once per coverage change.
+ */
+public class HearthOutline
+{
+    private static final Direction.Axis[] AXES = Direction.Axis.values();
+
+    private final List<Section> sections;
+
+    private HearthOutline(List<Section> sections)
+    {   this.sections = sections;
+    }
+
+    public List<Section> getSections()
+    {   return sections;
+    }
+
+    /**
+     * @param blocks The packed positions of the covered blocks
+     * @param fullBlocks The covered blocks that are full cubes
+     */
+    public static HearthOutline build(long[] blocks, LongSet fullBlocks)
+    {
+        LongOpenHashSet covered = new LongOpenHashSet(blocks);
+        // Edges one block long along each axis, stored as the packed position of the corner they start at
+        LongOpenHashSet[] edges = { new LongOpenHashSet(), new LongOpenHashSet(), new LongOpenHashSet() };
+
+        for (long pos : blocks)
+        {
+            boolean full = fullBlocks.contains(pos);
+            for (Direction.Axis axis : AXES)
+            {
+                // The two axes the edge is offset along
+                Direction.Axis a = AXES[(axis.ordinal() + 1) % 3];
+                Direction.Axis b = AXES[(axis.ordinal() + 2) % 3];
+                for (int sideA = 0; sideA < 2; sideA++)
+                {
+                    for (int sideB = 0; sideB < 2; sideB++)
+                    {
+                        if (full || isExposed(covered, pos, a, sideA) && isExposed(covered, pos, b, sideB))
+                        {   edges[axis.ordinal()].add(offset(offset(pos, a, sideA), b, sideB));
+                        }
+                    }
+                }
+            }
+        }
+
+        // Merge edges into lines, which end at section borders so each line belongs to one section
+        Long2ObjectOpenHashMap<SectionBuilder> builders = new Long2ObjectOpenHashMap<>();
+        for (Direction.Axis axis : AXES)
+        {
+            LongOpenHashSet axisEdges = edges[axis.ordinal()];
+            LongIterator iterator = axisEdges.iterator();
+            while (iterator.hasNext())
+            {
+                long start = iterator.nextLong();
+                int startCoord = axis.choose(BlockPos.getX(start), BlockPos.getY(start), BlockPos.getZ(start));
+                // Only start lines from the first edge of each run
+                if ((startCoord & 15) != 0 && axisEdges.contains(offset(start, axis, -1))) continue;
+
+                int length = 1;
+                while (((startCoord + length) & 15) != 0 && axisEdges.contains(offset(start, axis, length)))
+                {   length++;
+                }
+                long end = offset(start, axis, length);
+                builders.computeIfAbsent(SectionPos.blockToSection(start), k -> new SectionBuilder()).addLine(start, end);
+            }
+        }
+
+        List<Section> sections = new ArrayList<>(builders.size());
+        for (SectionBuilder builder : builders.values())
+        {   sections.add(builder.build());
+        }
+        return new HearthOutline(sections);
+    }
+
+    private static boolean isExposed(LongSet covered, long pos, Direction.Axis axis, int side)
+    {   return !covered.contains(offset(pos, axis, side == 0 ? -1 : 1));
+    }
+
+    private static long offset(long pos, Direction.Axis axis, int distance)
+    {   return distance == 0 ? pos : BlockPos.offset(pos, axis.choose(distance, 0, 0), axis.choose(0, distance, 0), axis.choose(0, 0, distance));
+    }
+
+    /**
+     * @param bounds The box containing every line in this section
+     * @param lines The start and end of each line, as 6 floats per line
+     */
+    public record Section(AABB bounds, float[] lines)
+    {}
+
+    private static class SectionBuilder
+    {
+        final FloatArrayList lines = new FloatArrayList();
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+
+        void addLine(long start, long end)
+        {
+            int x1 = BlockPos.getX(start), y1 = BlockPos.getY(start), z1 = BlockPos.getZ(start);
+            int x2 = BlockPos.getX(end), y2 = BlockPos.getY(end), z2 = BlockPos.getZ(end);
+            lines.add(x1); lines.add(y1); lines.add(z1);
+            lines.add(x2); lines.add(y2); lines.add(z2);
+            minX = Math.min(minX, x1); minY = Math.min(minY, y1); minZ = Math.min(minZ, z1);
+            maxX = Math.max(maxX, x2); maxY = Math.max(maxY, y2); maxZ = Math.max(maxZ, z2);
+        }
+
+        Section build()
+        {   return new Section(new AABB(minX, minY, minZ, maxX, maxY, maxZ), lines.toFloatArray());
+        }
+    }
+}
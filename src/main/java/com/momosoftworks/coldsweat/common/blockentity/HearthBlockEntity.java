@@ -4,7 +4,7 @@ import com.mojang.datafixers.util.Pair;
 import com.simibubi.create.content.fluids.pipes.FluidPipeBlock;
 import com.simibubi.create.content.fluids.pipes.GlassFluidPipeBlock;
 import com.momosoftworks.coldsweat.ColdSweat;
-import com.momosoftworks.coldsweat.api.event.common.BlockStateChangedEvent;
+import com.momosoftworks.coldsweat.api.event.common.BlockChangeBatchEvent;
 import com.momosoftworks.coldsweat.api.temperature.modifier.HearthTempModifier;
 import com.momosoftworks.coldsweat.api.temperature.modifier.TempModifier;
 import com.momosoftworks.coldsweat.api.util.Temperature;
@@ -12,21 +12,25 @@ import com.momosoftworks.coldsweat.common.block.HearthBottomBlock;
 import com.momosoftworks.coldsweat.common.capability.EntityTempManager;
 import com.momosoftworks.coldsweat.common.container.HearthContainer;
 import com.momosoftworks.coldsweat.common.event.HearthSaveDataHandler;
-import com.momosoftworks.coldsweat.config.ClientSettingsConfig;
 import com.momosoftworks.coldsweat.core.init.BlockEntityInit;
 import com.momosoftworks.coldsweat.core.init.ParticleTypesInit;
 import com.momosoftworks.coldsweat.core.network.ColdSweatPacketHandler;
-import com.momosoftworks.coldsweat.core.network.message.HearthResetMessage;
+import com.momosoftworks.coldsweat.core.network.message.HearthCoverageMessage;
 import com.momosoftworks.coldsweat.util.ClientOnlyHelper;
 import com.momosoftworks.coldsweat.util.compat.CompatManager;
 import com.momosoftworks.coldsweat.config.ConfigSettings;
 import com.momosoftworks.coldsweat.util.math.CSMath;
 import com.momosoftworks.coldsweat.util.registries.ModEffects;
 import com.momosoftworks.coldsweat.util.registries.ModSounds;
+import com.momosoftworks.coldsweat.util.world.HearthCoverage;
+import com.momosoftworks.coldsweat.util.world.HearthCoverageIndex;
+import com.momosoftworks.coldsweat.util.world.RegionListenerRegistry;
 import com.momosoftworks.coldsweat.util.world.SpreadPath;
+import com.momosoftworks.coldsweat.util.world.SpreadPathStore;
 import com.momosoftworks.coldsweat.util.world.WorldHelper;
-import net.minecraft.client.Minecraft;
-import net.minecraft.client.ParticleStatus;
+import io.netty.buffer.Unpooled;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.core.NonNullList;
@@ -35,10 +39,12 @@ import net.minecraft.core.particles.SimpleParticleType;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.ListTag;
 import net.minecraft.network.Connection;
+import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.network.chat.Component;
 import net.minecraft.network.protocol.game.ClientboundBlockEntityDataPacket;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.sounds.SoundEvents;
 import net.minecraft.sounds.SoundSource;
 import net.minecraft.world.ContainerHelper;
@@ -59,8 +65,6 @@ import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.entity.RandomizableContainerBlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.chunk.LevelChunk;
-import net.minecraftforge.common.MinecraftForge;
-import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod;
 import net.minecraftforge.fml.util.ObfuscationReflectionHelper;
 import net.minecraftforge.network.PacketDistributor;
@@ -70,13 +74,15 @@ import java.lang.reflect.Method;
 import java.util.*;
 
 @Mod.EventBusSubscriber
-public class HearthBlockEntity extends RandomizableContainerBlockEntity
+public class HearthBlockEntity extends RandomizableContainerBlockEntity implements RegionListenerRegistry.Listener
 {
-    // List of SpreadPaths, which determine where the Hearth is affecting and how it spreads through/around blocks
-    List<SpreadPath> paths = new ArrayList<>();
-    // Used as a lookup table for detecting duplicate paths (faster than ArrayList#contains())
-    Set<BlockPos> pathLookup = new HashSet<>();
-    Map<Pair<Integer, Integer>, Pair<Integer, Boolean>> seeSkyMap = new HashMap<>();
+    // Packed SpreadPaths, which determine where the Hearth is affecting and how it spreads through/around blocks
+    // Also holds the lookup table for detecting duplicate paths
+    SpreadPathStore paths = new SpreadPathStore(256);
+    // The covered blocks as last sent to clients, or as received from the server on the client
+    HearthCoverage coverage = new HearthCoverage();
+    // Players who asked for the full coverage -> the game time they last got it
+    Object2LongOpenHashMap<UUID> coverageRequests = new Object2LongOpenHashMap<>();
 
     List<MobEffectInstance> effects = new ArrayList<>();
 
@@ -102,19 +108,27 @@ public class HearthBlockEntity extends RandomizableContainerBlockEntity
     int insulationLevel = 0;
 
     boolean isPlayerNearby = false;
-    List<Player> players = new ArrayList<>();
+    // The version of the paths that was last written to the HearthCoverageIndex
+    int coverageVersion = -1;
     int rebuildCooldown = 0;
     boolean forceRebuild = false;
     boolean isRebuildQueued = false;
+    // Positions of changed blocks that haven't been applied to the paths yet
+    LongArrayList pendingChanges = new LongArrayList();
+    // Visited positions left to re-check in the current verification pass
+    long[] verifyQueue = null;
+    int verifyIndex = 0;
     public int ticksExisted = 0;
 
     private boolean registeredLocation = false;
 
-    boolean showParticles = true;
     int frozenPaths = 0;
     boolean spreading = true;
 
     private static final Direction[] DIRECTIONS = Direction.values();
+    // Visited positions re-checked per tick during a verification pass
+    private static final int VERIFY_BATCH = 256;
+    private static final int COVERAGE_REQUEST_COOLDOWN = 20;
 
     static Method TICK_DOWN_EFFECT;
     static
@@ -130,18 +144,14 @@ public class HearthBlockEntity extends RandomizableContainerBlockEntity
     {
         super(BlockEntityInit.HEARTH_BLOCK_ENTITY_TYPE.get(), pos, state);
         this.addPath(new SpreadPath(pos).setOrigin(this.getBlockPos()));
-        MinecraftForge.EVENT_BUS.register(this);
     }
 
-    @SubscribeEvent
-    public void onBlockUpdate(BlockStateChangedEvent event)
+    @Override
+    public void onBlockChanged(BlockChangeBatchEvent changes, int change)
     {
-        BlockPos pos = event.getPosition();
-        Level level = event.getLevel();
-        if (level == this.level
-        && CSMath.withinCube(pos, this.getBlockPos(), this.getMaxRange()) && pathLookup.contains(pos)
-        && !event.getOldState().getCollisionShape(level, pos).equals(event.getNewState().getCollisionShape(level, pos)))
-        {   this.sendBlockUpdate();
+        long pos = changes.getPackedPos(change);
+        if (paths.isVisited(pos) && changes.hasCollisionChanged(change))
+        {   pendingChanges.add(pos);
         }
     }
 
@@ -193,10 +203,13 @@ public class HearthBlockEntity extends RandomizableContainerBlockEntity
 
     public void tick(Level level, BlockPos pos)
     {
-        // Register the hearth's position to the global map
+        // Register the hearth to the level's coverage index
         if (!this.registeredLocation)
         {   levelPos = Pair.of(this.getBlockPos(), level.dimension().location());
-            HearthSaveDataHandler.HEARTH_POSITIONS.add(levelPos);
+            HearthCoverageIndex.get(level).addHearth(this);
+            if (!level.isClientSide)
+            {   RegionListenerRegistry.get(level).register(this, pos, this.getMaxRange());
+            }
             this.x = pos.getX();
             this.y = pos.getY();
             this.z = pos.getZ();
@@ -213,15 +226,19 @@ public class HearthBlockEntity extends RandomizableContainerBlockEntity
         if (this.level != null && this.ticksExisted % 20 == 0)
         {
             this.isPlayerNearby = false;
-            players.clear();
             for (Player player : this.level.players())
             {
                 if (player.blockPosition().closerThan(pos, this.getMaxRange()))
-                {
-                    players.add(player);
-                    this.isPlayerNearby = true;
+                {   this.isPlayerNearby = true;
+                    break;
                 }
             }
+            // Publish changes to the area this hearth covers
+            if (!isClient && paths.getVersion() != coverageVersion)
+            {   HearthCoverageIndex.get(level).updateCoverage(this, paths);
+                this.syncCoverage();
+                coverageVersion = paths.getVersion();
+            }
         }
 
         // Tick down the time for each effect
@@ -238,15 +255,28 @@ public class HearthBlockEntity extends RandomizableContainerBlockEntity
             });
         }
 
-        // Clear paths every 5 minutes to account for calculation errors
-        if (this.ticksExisted % 6000 == 0)
-        {   this.replacePaths(new ArrayList<>(Collections.singletonList(new SpreadPath(pos).setOrigin(pos))));
+        // Re-check the covered area every 5 minutes to account for missed block changes
+        if (!isClient)
+        {
+            if (this.ticksExisted % 6000 == 0)
+            {   verifyQueue = paths.getVisitedArray();
+                verifyIndex = 0;
+            }
+            if (verifyQueue != null)
+            {   this.verifyPaths(level, pos);
+            }
         }
 
-        // Reset if a nearby block has been updated
+        // Reset if a full rebuild has been requested
         if (forceRebuild || (rebuildCooldown <= 0 && isRebuildQueued))
         {   this.updateNotifiedPaths();
         }
+        // Otherwise, only re-spread the areas affected by nearby block changes
+        else if (!pendingChanges.isEmpty())
+        {   long[] changes = pendingChanges.toLongArray();
+            pendingChanges.clear();
+            this.applyBlockChanges(changes);
+        }
 
         if (hotFuel > 0 || coldFuel > 0)
         {
@@ -256,58 +286,54 @@ public class HearthBlockEntity extends RandomizableContainerBlockEntity
 
             if (this.isPlayerNearby)
             {
-                if (this.ticksExisted % 10 == 0)
+                // Clients only show the coverage sent by the server (see HearthParticleEmitter)
+                if (!isClient)
                 {
-                    showParticles = isClient
-                            && Minecraft.getInstance().options.particles().get() == ParticleStatus.ALL
-                            && !HearthSaveDataHandler.DISABLED_HEARTHS.contains(levelPos);
-                }
+                    if (paths.isEmpty())
+                        paths.add(pos.asLong(), pos.asLong(), Direction.UP);
+
+                    // Mark as not spreading if all paths are frozen
+                    if (this.frozenPaths >= paths.size())
+                        this.spreading = false;
 
-                if (paths.isEmpty())
-                    this.addPath(new SpreadPath(pos).setOrigin(pos));
-
-                // Mark as not spreading if all paths are frozen
-                if (this.frozenPaths >= paths.size())
-                    this.spreading = false;
-
-                /*
-                 Partition the points into logical "sub-maps" to be iterated over separately each tick
-                */
-                int pathCount = paths.size();
-                // Size of each partition (defaults to 1/30th of the total paths)
-                int partSize = spreading ? CSMath.clamp(pathCount / 3, 100, 4000)
-                                         : CSMath.clamp(pathCount / 20, 10, 100);
-                // Number of partitions
-                int partCount = (int) Math.ceil(pathCount / (float) partSize);
-                // Index of the last point being worked on this tick
-                int lastIndex = partSize * ((this.ticksExisted % partCount) + 1);
-                // Index of the first point being worked on this tick
-                int firstIndex = Math.max(0, lastIndex - partSize);
-
-                /*
-                 Iterate over the specified partition of paths
-                 */
-                for (int i = firstIndex; i < Math.min(paths.size(), lastIndex); i++)
-                {   // This operation is really fast because it's an ArrayList
-                    SpreadPath spreadPath = paths.get(i);
-                    BlockPos pathPos = spreadPath.pos;
-                    if (spreadPath.origin == null)
-                        spreadPath.setOrigin(pos);
-
-                    int spX = spreadPath.x;
-                    int spY = spreadPath.y;
-                    int spZ = spreadPath.z;
-
-                    // Use try-finally because there's still stuff to do even if "continue;" skips the rest of the code
-                    try
-                    {   // Don't try to spread if the path is frozen
-                        if (spreadPath.frozen)
+                    /*
+                     Partition the points into logical "sub-maps" to be iterated over separately each tick
+                    */
+                    int pathCount = paths.size();
+                    // Size of each partition (defaults to 1/30th of the total paths)
+                    int partSize = spreading ? CSMath.clamp(pathCount / 3, 100, 4000)
+                                             : CSMath.clamp(pathCount / 20, 10, 100);
+                    // Number of partitions
+                    int partCount = (int) Math.ceil(pathCount / (float) partSize);
+                    // Index of the last point being worked on this tick
+                    int lastIndex = partSize * ((this.ticksExisted % partCount) + 1);
+                    // Index of the first point being worked on this tick
+                    int firstIndex = Math.max(0, lastIndex - partSize);
+
+                    /*
+                     Iterate over the specified partition of paths
+                     */
+                    BlockPos.MutableBlockPos pathPos = new BlockPos.MutableBlockPos();
+                    BlockPos.MutableBlockPos originPos = new BlockPos.MutableBlockPos();
+                    int spreadRangeSq = this.getSpreadRange() * this.getSpreadRange();
+                    for (int i = firstIndex; i < Math.min(paths.size(), lastIndex); i++)
+                    {
+                        long packedPos = paths.getPos(i);
+                        long origin = paths.getOrigin(i);
+                        int spX = BlockPos.getX(packedPos);
+                        int spY = BlockPos.getY(packedPos);
+                        int spZ = BlockPos.getZ(packedPos);
+                        pathPos.set(spX, spY, spZ);
+                        originPos.set(origin);
+
+                        // Don't try to spread if the path is frozen
+                        if (paths.isFrozen(i))
                         {
                             // Remove a 3D-checkerboard of paths after the Hearth is finished spreading to reduce pointless iteration overhead
                             // The Hearth is "finished spreading" when all paths are frozen
                             if (!spreading && (Math.abs(spY % 2) == 0) == (Math.abs(spX % 2) == Math.abs(spZ % 2)))
                             {   paths.remove(i);
-                                // Go back and reiterate over the new path at this index
+                                // Go back and reiterate over the path swapped into this index
                                 i--;
                             }
                             // Don't do anything else with this path
@@ -320,30 +346,16 @@ public class HearthBlockEntity extends RandomizableContainerBlockEntity
 
                         // The origin of the path is usually the hearth's position,
                         // but if it's spreading through Create pipes then the origin is the end of the pipe
-                        if (pathCount < this.maxPaths() && spreadPath.withinDistance(spreadPath.origin, this.getSpreadRange())
-                        && CSMath.withinCube(spreadPath.origin, pos, this.getMaxRange()))
+                        if (pathCount < this.maxPaths() && pathPos.distSqr(originPos) < spreadRangeSq
+                        && CSMath.withinCube(originPos, pos, this.getMaxRange()))
                         {
-                            /*
-                             Get the chunk at this position
-                             */
-
                             /*
                              Spreading algorithm
                              */
-                            // Build a map of what positions can see the sky
-                            Pair<Integer, Integer> flatPos = Pair.of(spX, spZ);
-                            Pair<Integer, Boolean> seeSkyState = seeSkyMap.get(flatPos);
-                            boolean canSeeSky;
-                            if (seeSkyState == null || (seeSkyState.getFirst() < spY != seeSkyState.getSecond()))
-                            {   seeSkyMap.put(flatPos, Pair.of(spY, canSeeSky = WorldHelper.canSeeSky(level, pathPos.above(), 64)));
-                            }
-                            else
-                            {   canSeeSky = seeSkyState.getSecond();
-                            }
-
-                            if (!canSeeSky)
+                            if (!WorldHelper.canSeeSky(level, pathPos.above(), 64))
                             {
                                 BlockState state = level.getBlockState(pathPos);
+                                Direction pathDir = paths.getDirection(i);
 
                                 // Try to spread in every direction from the current position
                                 for (int d = 0; d < DIRECTIONS.length; d++)
@@ -351,72 +363,35 @@ public class HearthBlockEntity extends RandomizableContainerBlockEntity
                                     Direction direction = DIRECTIONS[d];
 
                                     // Don't try to spread backwards
-                                    Direction pathDir = spreadPath.direction;
                                     if (direction.getAxis() == pathDir.getAxis() && direction != pathDir) continue;
 
-                                    BlockPos tryPos = pathPos.relative(direction);
+                                    long tryPos = BlockPos.offset(packedPos, direction);
 
-                                    // Avoid duplicate paths (ArrayList isn't duplicate-safe like Sets/Maps)
-                                    // .add() functions to both add the path and check if it's already in the list
-                                    if (pathLookup.add(tryPos))
+                                    // Avoid duplicate paths
+                                    // .visit() functions to both mark the position and check if it's already been visited
+                                    if (paths.visit(tryPos, direction))
                                     {
-                                        SpreadPath newPath = new SpreadPath(tryPos, direction).setOrigin(spreadPath.origin);
-
                                         // If the BlockState is a pipe, check if the new path is following the direction of the pipe
-                                        if (this.canSpreadThroughPipes(tryPos, state, newPath, direction)
-                                        && !WorldHelper.isSpreadBlocked(level, state, pathPos, direction, spreadPath.direction))
-                                        {   // Add the new path to the list
-                                            paths.add(newPath);
+                                        if (this.canSpreadThroughPipes(state, direction)
+                                        && !WorldHelper.isSpreadBlocked(level, state, pathPos, direction, pathDir))
+                                        {   // Paths leaving a pipe use the end of the pipe as their origin
+                                            paths.add(tryPos, this.isPipe(state) ? tryPos : origin, direction);
                                         }
                                     }
                                 }
                             }
                             // Remove this path if it has skylight access
                             else
-                            {   pathLookup.remove(pathPos);
+                            {   paths.unvisit(packedPos);
                                 paths.remove(i);
                                 i--;
                                 continue;
                             }
                         }
                         // Track frozen paths to know when the Hearth is done spreading
-                        spreadPath.frozen = true;
+                        paths.setFrozen(i, true);
                         this.frozenPaths++;
                     }
-
-                    /*
-                     Give insulation & spawn particles
-                     */
-                    finally
-                    {
-                        // Air Particles
-                        if (isClient && showParticles)
-                        {
-                            Random rand = new Random();
-                            if (!(Minecraft.getInstance().options.renderDebug && ClientSettingsConfig.getInstance().isHearthDebugEnabled()) && rand.nextFloat() < (spreading ? 0.016f : 0.032f))
-                            {   float xr = rand.nextFloat();
-                                float yr = rand.nextFloat();
-                                float zr = rand.nextFloat();
-                                float xm = rand.nextFloat() / 20 - 0.025f;
-                                float zm = rand.nextFloat() / 20 - 0.025f;
-
-                                level.addParticle(ParticleTypesInit.HEARTH_AIR.get(), false, spX + xr, spY + yr, spZ + zr, xm, 0, zm);
-                            }
-                        }
-                    }
-                }
-
-                // Give insulation to players
-                if (!isClient && this.ticksExisted % 20 == 0)
-                {
-                    for (int i = 0; i < players.size(); i++)
-                    {
-                        Player player = players.get(i);
-                        if (player != null && pathLookup.contains(player.blockPosition()))
-                        {   this.insulatePlayer(player);
-                        }
-                    }
-                    players.clear();
                 }
 
                 // Drain fuel
@@ -528,6 +503,23 @@ public class HearthBlockEntity extends RandomizableContainerBlockEntity
         }
     }
 
+    /**
+     * @return Whether air particles should be shown in the area covered by this Hearth
+     */
+    public boolean showsAirParticles()
+    {   return (hotFuel > 0 || coldFuel > 0) && this.isPlayerNearby && !HearthSaveDataHandler.DISABLED_HEARTHS.contains(levelPos);
+    }
+
+    /**
+     * Called by {@link HearthCoverageIndex} for players standing in this hearth's area
+     */
+    public void tryInsulatePlayer(Player player)
+    {
+        if ((hotFuel > 0 || coldFuel > 0) && this.isPlayerNearby)
+        {   this.insulatePlayer(player);
+        }
+    }
+
     void insulatePlayer(Player player)
     {
         for (int i = 0; i < effects.size(); i++)
@@ -575,7 +567,7 @@ public class HearthBlockEntity extends RandomizableContainerBlockEntity
         });
     }
 
-    private boolean canSpreadThroughPipes(BlockPos newPos, BlockState fromState, SpreadPath newPath, Direction direction)
+    private boolean canSpreadThroughPipes(BlockState fromState, Direction direction)
     {
         if (CREATE_LOADED)
         {
@@ -583,16 +575,16 @@ public class HearthBlockEntity extends RandomizableContainerBlockEntity
             if (!(block instanceof FluidPipeBlock) && !(block instanceof GlassFluidPipeBlock))
             {   return true;
             }
-            if ((block instanceof FluidPipeBlock && fromState.getValue(PipeBlock.PROPERTY_BY_DIRECTION.get(direction)))
-            || (block instanceof GlassFluidPipeBlock && fromState.getValue(RotatedPillarBlock.AXIS) == direction.getAxis()))
-            {   newPath.setOrigin(newPos);
-                return true;
-            }
-            return false;
+            return (block instanceof FluidPipeBlock && fromState.getValue(PipeBlock.PROPERTY_BY_DIRECTION.get(direction)))
+                || (block instanceof GlassFluidPipeBlock && fromState.getValue(RotatedPillarBlock.AXIS) == direction.getAxis());
         }
         return true;
     }
 
+    private boolean isPipe(BlockState state)
+    {   return CREATE_LOADED && (state.getBlock() instanceof FluidPipeBlock || state.getBlock() instanceof GlassFluidPipeBlock);
+    }
+
     void updateNotifiedPaths()
     {
         // Reset cooldown
@@ -600,18 +592,85 @@ public class HearthBlockEntity extends RandomizableContainerBlockEntity
 
         // Clear paths & lookup
         paths.clear();
-        pathLookup.clear();
-        seeSkyMap.clear();
 
         // Un-freeze paths so areas can be re-checked
         frozenPaths = 0;
         spreading = true;
 
-        // Tell client to reset paths too
-        this.sendResetPacket();
-
         forceRebuild = false;
         this.isRebuildQueued = false;
+        this.pendingChanges.clear();
+        this.verifyQueue = null;
+    }
+
+    /**
+     * Removes the paths that spread through the given positions, then lets the surrounding paths spread back into the area.
+     * @param changes The packed positions of the blocks that changed
+     */
+    public void applyBlockChanges(long[] changes)
+    {
+        if (paths.invalidate(changes, this.getBlockPos().asLong()) > 0)
+        {   this.frozenPaths = paths.countFrozen();
+            this.spreading = true;
+        }
+    }
+
+    /**
+     * Re-checks the next slice of visited positions in the current verification pass.<br>
+     * Positions that would no longer be spread to the same way (a wall that was removed, a path that is now blocked or
+     * under open sky, or whose parent is gone) are invalidated, so the area around them spreads again.
+     */
+    private void verifyPaths(Level level, BlockPos pos)
+    {
+        long root = pos.asLong();
+        int spreadRangeSq = this.getSpreadRange() * this.getSpreadRange();
+        LongArrayList stale = new LongArrayList();
+        BlockPos.MutableBlockPos blockPos = new BlockPos.MutableBlockPos();
+        BlockPos.MutableBlockPos parentPos = new BlockPos.MutableBlockPos();
+        BlockPos.MutableBlockPos originPos = new BlockPos.MutableBlockPos();
+
+        int end = Math.min(verifyQueue.length, verifyIndex + VERIFY_BATCH);
+        for (; verifyIndex < end; verifyIndex++)
+        {
+            long visited = verifyQueue[verifyIndex];
+            Direction direction = paths.getVisitedDirection(visited);
+            // Already removed since the pass started
+            if (direction == null || visited == root) continue;
+
+            long parent = BlockPos.offset(visited, direction.getOpposite());
+            blockPos.set(visited);
+            parentPos.set(parent);
+            if (!level.isLoaded(blockPos) || !level.isLoaded(parentPos)) continue;
+
+            // Only paths can spread, so a position whose parent is no longer a path is left over
+            if (parent != root && !paths.isPath(parent))
+            {   stale.add(visited);
+                continue;
+            }
+            BlockState parentState = level.getBlockState(parentPos);
+            Direction parentDir = paths.getVisitedDirection(parent);
+            boolean blocked = !this.canSpreadThroughPipes(parentState, direction)
+                           || WorldHelper.isSpreadBlocked(level, parentState, parentPos, direction, parentDir != null ? parentDir : Direction.UP);
+            if (paths.isPath(visited))
+            {
+                // Paths are only checked for sky access while they're within spreading range of their origin
+                originPos.set(paths.getPathOrigin(visited));
+                boolean inRange = blockPos.distSqr(originPos) < spreadRangeSq && CSMath.withinCube(originPos, pos, this.getMaxRange());
+                if (blocked || inRange && WorldHelper.canSeeSky(level, blockPos.above(), 64))
+                {   stale.add(visited);
+                }
+            }
+            // The block that stopped the spread is gone
+            else if (!blocked)
+            {   stale.add(visited);
+            }
+        }
+        if (verifyIndex >= verifyQueue.length)
+        {   verifyQueue = null;
+        }
+        if (!stale.isEmpty())
+        {   this.applyBlockChanges(stale.toLongArray());
+        }
     }
 
     public List<MobEffectInstance> getEffects()
@@ -709,7 +768,7 @@ public class HearthBlockEntity extends RandomizableContainerBlockEntity
     @Override
     public void saveAdditional(CompoundTag tag)
     {   super.saveAdditional(tag);
-        tag.merge(this.getUpdateTag());
+        tag.merge(this.getStateTag());
         ContainerHelper.saveAllItems(tag, this.items);
     }
 
@@ -734,10 +793,9 @@ public class HearthBlockEntity extends RandomizableContainerBlockEntity
         }
     }
 
-    @Override
-    public CompoundTag getUpdateTag()
+    CompoundTag getStateTag()
     {
-        CompoundTag tag = super.getUpdateTag();
+        CompoundTag tag = new CompoundTag();
         tag.putInt("HotFuel",  this.getHotFuel());
         tag.putInt("ColdFuel", this.getColdFuel());
         tag.putInt("InsulationLevel", insulationLevel);
@@ -746,6 +804,23 @@ public class HearthBlockEntity extends RandomizableContainerBlockEntity
         return tag;
     }
 
+    /**
+     * Sent with the chunk, so it also holds the coverage that later {@link HearthCoverageMessage}s build on
+     */
+    @Override
+    public CompoundTag getUpdateTag()
+    {
+        CompoundTag tag = this.getStateTag();
+        FriendlyByteBuf buffer = new FriendlyByteBuf(Unpooled.buffer());
+        coverage.writeChanges(buffer, null);
+        byte[] data = new byte[buffer.readableBytes()];
+        buffer.readBytes(data);
+        tag.putByteArray("Coverage", data);
+        tag.putInt("CoverageVersion", coverage.getVersion());
+
+        return tag;
+    }
+
     @Override
     public void handleUpdateTag(CompoundTag tag)
     {   this.setHotFuel(tag.getInt("HotFuel"), false);
@@ -753,6 +828,11 @@ public class HearthBlockEntity extends RandomizableContainerBlockEntity
         this.updateFuelState();
         this.insulationLevel = tag.getInt("InsulationLevel");
         this.loadEffects(tag);
+        if (tag.contains("Coverage"))
+        {   coverage.clear();
+            coverage.readChanges(new FriendlyByteBuf(Unpooled.wrappedBuffer(tag.getByteArray("Coverage"))));
+            coverage.setVersion(tag.getInt("CoverageVersion"));
+        }
     }
 
     @Override
@@ -762,18 +842,19 @@ public class HearthBlockEntity extends RandomizableContainerBlockEntity
 
     @Override
     public ClientboundBlockEntityDataPacket getUpdatePacket()
-    {   return ClientboundBlockEntityDataPacket.create(this);
+    {   // Fuel updates are frequent, and don't need to re-send the coverage
+        return ClientboundBlockEntityDataPacket.create(this, te -> ((HearthBlockEntity) te).getStateTag());
     }
 
     public void replacePaths(ArrayList<SpreadPath> newPaths)
     {   this.frozenPaths = 0;
-        this.paths = newPaths;
-        this.pathLookup = newPaths.stream().map(path -> path.pos).collect(HashSet::new, HashSet::add, HashSet::addAll);
-        this.spreading = true;
-        if (this.level.isClientSide)
-        {   ClientOnlyHelper.addHearthPosition(this.getBlockPos());
+        this.paths.clear();
+        this.paths.addAll(newPaths);
+        for (int i = 0; i < newPaths.size(); i++)
+        {   SpreadPath path = newPaths.get(i);
+            this.paths.visit(path.pos.asLong(), path.direction);
         }
-        this.sendResetPacket();
+        this.spreading = true;
     }
 
     public void addPath(SpreadPath path)
@@ -784,17 +865,48 @@ public class HearthBlockEntity extends RandomizableContainerBlockEntity
     {   paths.addAll(newPaths);
     }
 
-    public void sendResetPacket()
-    {   if (level instanceof ServerLevel)
-        {   ColdSweatPacketHandler.INSTANCE.send(PacketDistributor.TRACKING_CHUNK.with(() ->
-                                 (LevelChunk) WorldHelper.getChunk(level, this.getBlockPos())), new HearthResetMessage(this.getBlockPos()));
+    /**
+     * Sends the sections of the covered area that changed since the last sync to tracking clients
+     */
+    void syncCoverage()
+    {
+        HearthCoverage newCoverage = HearthCoverage.of(paths);
+        HearthCoverageMessage message = HearthCoverageMessage.create(this.getBlockPos(), newCoverage, coverage);
+        if (message != null)
+        {   coverage = newCoverage;
+            if (level instanceof ServerLevel)
+            {   ColdSweatPacketHandler.INSTANCE.send(PacketDistributor.TRACKING_CHUNK.with(() ->
+                                     (LevelChunk) WorldHelper.getChunk(level, this.getBlockPos())), message);
+            }
         }
     }
 
+    /**
+     * Sends the whole covered area to the given player, replacing whatever their client has.<br>
+     * Full coverage can be large, so each player can only get it once per {@link #COVERAGE_REQUEST_COOLDOWN} ticks.
+     */
+    public void sendCoverageTo(ServerPlayer player)
+    {
+        long gameTime = player.level().getGameTime();
+        coverageRequests.object2LongEntrySet().removeIf(entry -> gameTime - entry.getLongValue() >= COVERAGE_REQUEST_COOLDOWN);
+        if (coverageRequests.containsKey(player.getUUID())) return;
+
+        coverageRequests.put(player.getUUID(), gameTime);
+        ColdSweatPacketHandler.INSTANCE.send(PacketDistributor.PLAYER.with(() -> player), HearthCoverageMessage.create(this.getBlockPos(), coverage, null));
+    }
+
+    public HearthCoverage getCoverage()
+    {   return coverage;
+    }
+
     public void sendBlockUpdate()
     {   isRebuildQueued = true;
     }
 
+    public void queueBlockChange(BlockPos pos)
+    {   pendingChanges.add(pos.asLong());
+    }
+
     public void forceUpdate()
     {   this.forceRebuild = true;
         this.sendBlockUpdate();
@@ -803,13 +915,20 @@ public class HearthBlockEntity extends RandomizableContainerBlockEntity
     @Override
     public void setRemoved()
     {   super.setRemoved();
-        HearthSaveDataHandler.HEARTH_POSITIONS.remove(this.getBlockPos());
-        if (this.level.isClientSide)
-        {   ClientOnlyHelper.removeHearthPosition(this.getBlockPos());
+        if (this.level != null)
+        {
+            HearthCoverageIndex.get(this.level).removeHearth(this);
+            if (this.level.isClientSide)
+            {   ClientOnlyHelper.removeHearthPosition(this.getBlockPos());
+            }
+            // Hearths only listen for block changes on the server
+            else
+            {   RegionListenerRegistry.get(this.level).unregister(this);
+            }
         }
     }
 
     public Set<BlockPos> getPathLookup()
-    {   return this.pathLookup;
+    {   return this.level != null && this.level.isClientSide ? this.coverage.getView() : this.paths.getLookupView();
     }
 }
\ No newline at end of file
@@ -1,56 +1,96 @@
 package com.momosoftworks.coldsweat.common.blockentity;
 
-import com.momosoftworks.coldsweat.api.util.Temperature;
+import com.momosoftworks.coldsweat.api.event.common.BlockChangeBatchEvent;
 import com.momosoftworks.coldsweat.common.block.ThermolithBlock;
 import com.momosoftworks.coldsweat.core.init.BlockEntityInit;
 import com.momosoftworks.coldsweat.config.ConfigSettings;
 import com.momosoftworks.coldsweat.util.math.CSMath;
+import com.momosoftworks.coldsweat.util.world.RegionListenerRegistry;
+import com.momosoftworks.coldsweat.util.world.ThermolithTracker;
 import net.minecraft.core.BlockPos;
-import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
 
-public class ThermolithBlockEntity extends BlockEntity
+/**
+ * Outputs a redstone signal based on the world temperature at its position.<br>
+ * The temperature is recalculated by {@link ThermolithTracker}.
+ */
+public class ThermolithBlockEntity extends BlockEntity implements RegionListenerRegistry.Listener
 {
     private int signal = 0;
+    // Set when something nearby changes that could affect the temperature
+    private boolean invalid = true;
+    private long lastUpdate = 0;
 
     public ThermolithBlockEntity(BlockPos pos, BlockState state)
     {
         super(BlockEntityInit.THERMOLITH_BLOCK_ENTITY_TYPE.get(), pos, state);
     }
 
-    public static <T extends BlockEntity> void tick(Level level, BlockPos pos, BlockState state, T te)
+    @Override
+    public void onLoad()
     {
-        if (te instanceof ThermolithBlockEntity thermoTE)
-        {
-            thermoTE.tick(level, state, pos);
+        super.onLoad();
+        if (this.level != null && !this.level.isClientSide)
+        {   ThermolithTracker.get(this.level).addThermolith(this);
+            RegionListenerRegistry.get(this.level).register(this, this.getBlockPos(), ConfigSettings.BLOCK_RANGE.get() + 1);
+        }
+    }
+
+    @Override
+    public void setRemoved()
+    {
+        super.setRemoved();
+        if (this.level != null && !this.level.isClientSide)
+        {   ThermolithTracker.get(this.level).removeThermolith(this);
+            RegionListenerRegistry.get(this.level).unregister(this);
         }
     }
 
-    public void tick(Level level, BlockState state, BlockPos pos)
+    public void setTemperature(double temperature, long gameTime)
     {
-        if (level.getGameTime() % 10 == 0 && !level.isClientSide)
+        invalid = false;
+        lastUpdate = gameTime;
+        if (this.level == null) return;
+
+        BlockState state = this.getBlockState();
+        BlockPos pos = this.getBlockPos();
+        // Handle signal output / neighbor updates
+        int newSignal = (int) CSMath.blend(0, 15, temperature, ConfigSettings.MIN_TEMP.get(), ConfigSettings.MAX_TEMP.get());
+
+        if (newSignal != signal)
         {
-            // Handle signal output / neighbor updates
-            double temperature = Temperature.getTemperatureAt(pos, level);
-            int newSignal = (int) CSMath.blend(0, 15, temperature, ConfigSettings.MIN_TEMP.get(), ConfigSettings.MAX_TEMP.get());
-
-            if (newSignal != signal)
-            {
-                signal = newSignal;
-                level.updateNeighborsAt(pos, state.getBlock());
-            }
+            signal = newSignal;
+            level.updateNeighborsAt(pos, state.getBlock());
+        }
 
-            // Handle turning on/off
-            if (signal == 0)
-            {   if (state.getValue(ThermolithBlock.POWERED))
-                {   level.setBlockAndUpdate(pos, state.setValue(ThermolithBlock.POWERED, false));
-                }
-            }
-            else if (!state.getValue(ThermolithBlock.POWERED))
-            {   level.setBlockAndUpdate(pos, state.setValue(ThermolithBlock.POWERED, true));
+        // Handle turning on/off
+        if (signal == 0)
+        {   if (state.getValue(ThermolithBlock.POWERED))
+            {   level.setBlockAndUpdate(pos, state.setValue(ThermolithBlock.POWERED, false));
             }
         }
+        else if (!state.getValue(ThermolithBlock.POWERED))
+        {   level.setBlockAndUpdate(pos, state.setValue(ThermolithBlock.POWERED, true));
+        }
+    }
+
+    @Override
+    public void onBlockChanged(BlockChangeBatchEvent changes, int change)
+    {
+        BlockState newState = changes.getNewState(change);
+        // Thermoliths turning on or off doesn't affect temperature
+        if (!(newState.getBlock() instanceof ThermolithBlock && changes.getOldState(change).is(newState.getBlock())))
+        {   invalid = true;
+        }
+    }
+
+    public boolean isInvalid()
+    {   return invalid;
+    }
+
+    public long getLastUpdate()
+    {   return lastUpdate;
     }
 
     public int getSignal()
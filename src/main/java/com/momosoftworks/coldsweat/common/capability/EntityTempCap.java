@@ -9,9 +9,9 @@ import com.momosoftworks.coldsweat.util.math.CSMath;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.ListTag;
 import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.entity.player.Player;
 import static com.momosoftworks.coldsweat.common.capability.EntityTempManager.*;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.EnumMap;
 import java.util.List;
@@ -22,10 +22,14 @@ import java.util.List;
  */
 public class EntityTempCap implements ITemperatureCap
 {
-    private double[] syncedValues = new double[5];
+    private static final int DISTANCE_CHECK_INTERVAL = 100;
+
+    private final double[] syncedValues = new double[Type.values().length];
     boolean neverSynced = true;
-    // Ensures a minimum time between syncs
-    int syncTimer = 0;
+    int lastSyncTick = 0;
+    // Finding the nearest player checks every player in the level, so it's only redone every few seconds
+    private int distanceFactor = 0;
+    private int lastDistanceCheck = 0;
 
     // Map valid temperature types to a new EnumMap
     EnumMap<Type, Double> temperatures = Arrays.stream(VALID_MODIFIER_TYPES).collect(
@@ -36,7 +40,7 @@ public class EntityTempCap implements ITemperatureCap
     // Map valid modifier types to a new EnumMap
     EnumMap<Type, List<TempModifier>> modifiers = Arrays.stream(VALID_MODIFIER_TYPES).collect(
             () -> new EnumMap<>(Type.class),
-            (map, type) -> map.put(type, new ArrayList<>()),
+            (map, type) -> map.put(type, new TempModifierList()),
             EnumMap::putAll);
 
     public double getTemp(Type type)
@@ -156,22 +160,41 @@ public class EntityTempCap implements ITemperatureCap
         setTemp(Type.FREEZING_POINT, newMaxOffset);
         setTemp(Type.BURNING_POINT, newMinOffset);
 
-        if (syncTimer > 0)
-            syncTimer--;
-
         // Sync the temperature values to the client
-        if (syncTimer <= 0 || (neverSynced
-        || (int) syncedValues[0] != (int) newCoreTemp
-        || (int) syncedValues[1] != (int) newBaseTemp
-        || Math.abs(syncedValues[2] - newWorldTemp) >= 0.02
-        || Math.abs(syncedValues[3] - newMaxOffset) >= 0.02
-        || Math.abs(syncedValues[4] - newMinOffset) >= 0.02))
+        // New trackers won't have received the last sync, so all values are sent, and are re-sent periodically even if they haven't changed
+        int sinceSync = entity.tickCount - lastSyncTick;
+        boolean changed = false;
+        for (Type type : VALID_TEMPERATURE_TYPES)
+        {
+            double synced = syncedValues[type.ordinal()];
+            double temp = getTemp(type);
+            if (type == Type.CORE || type == Type.BASE ? (int) synced != (int) temp : Math.abs(synced - temp) >= 0.02)
+            {   changed = true;
+                break;
+            }
+        }
+        if (neverSynced || (changed || sinceSync >= 40) && sinceSync >= getSyncInterval(entity))
         {
             Temperature.updateTemperature(entity, this, false);
-            syncedValues = new double[] { newCoreTemp, newBaseTemp, newWorldTemp, newMaxOffset, newMinOffset };
+            for (Type type : VALID_TEMPERATURE_TYPES)
+            {   syncedValues[type.ordinal()] = getTemp(type);
+            }
             neverSynced = false;
-            syncTimer = 40;
+            lastSyncTick = entity.tickCount;
+        }
+    }
+
+    /**
+     * @return The minimum ticks between syncs, which increases with the distance to the nearest player
+     */
+    private int getSyncInterval(LivingEntity entity)
+    {
+        if (distanceFactor == 0 || entity.tickCount - lastDistanceCheck >= DISTANCE_CHECK_INTERVAL)
+        {   Player nearest = entity.level().getNearestPlayer(entity, -1);
+            distanceFactor = nearest == null ? 4 : 1 + (int) (nearest.distanceTo(entity) / 32);
+            lastDistanceCheck = entity.tickCount;
         }
+        return ConfigSettings.ENTITY_TEMP_SYNC_INTERVAL.get() * distanceFactor;
     }
 
     @Override
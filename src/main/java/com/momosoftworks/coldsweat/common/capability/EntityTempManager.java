@@ -10,10 +10,14 @@ import com.momosoftworks.coldsweat.api.util.Temperature.Addition.Mode;
 import com.momosoftworks.coldsweat.api.util.Temperature.Addition.Order;
 import com.momosoftworks.coldsweat.config.ConfigSettings;
 import com.momosoftworks.coldsweat.config.EntitySettingsConfig;
+import com.momosoftworks.coldsweat.core.network.ColdSweatPacketHandler;
+import com.momosoftworks.coldsweat.core.network.message.TemperatureSyncMessage;
 import com.momosoftworks.coldsweat.util.compat.CompatManager;
 import com.momosoftworks.coldsweat.util.math.CSMath;
 import com.momosoftworks.coldsweat.util.registries.*;
 import com.momosoftworks.coldsweat.util.world.WorldHelper;
+import it.unimi.dsi.fastutil.objects.Object2IntLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
 import net.minecraft.core.Direction;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.resources.ResourceLocation;
@@ -44,6 +48,7 @@ import net.minecraftforge.event.entity.player.PlayerEvent;
 import net.minecraftforge.event.level.SleepFinishedTimeEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.network.PacketDistributor;
 import net.minecraftforge.registries.ForgeRegistries;
 
 import javax.annotation.Nonnull;
@@ -58,8 +63,9 @@ public class EntityTempManager
     public static final Temperature.Type[] VALID_MODIFIER_TYPES    = {Temperature.Type.CORE, Temperature.Type.BASE, Temperature.Type.RATE, Temperature.Type.FREEZING_POINT, Temperature.Type.BURNING_POINT, Temperature.Type.WORLD};
     public static final Set<EntityType<?>> TEMPERATURE_ENABLED_ENTITIES = new HashSet<>(ImmutableSet.<EntityType<?>>builder().add(EntityType.PLAYER).build());
 
-    public static final Map<Entity, LazyOptional<ITemperatureCap>> SERVER_CAP_CACHE = new HashMap<>();
-    public static final Map<Entity, LazyOptional<ITemperatureCap>> CLIENT_CAP_CACHE = new HashMap<>();
+    // Temperature syncs queued this tick, with the types to send. The highest bit marks an instant sync.
+    private static final Object2IntLinkedOpenHashMap<LivingEntity> QUEUED_TEMP_SYNCS = new Object2IntLinkedOpenHashMap<>();
+    private static final int INSTANT_SYNC = 1 << 31;
 
     /**
      * Attach temperature capability to entities
@@ -111,12 +117,55 @@ public class EntityTempManager
 
     public static LazyOptional<ITemperatureCap> getTemperatureCap(Entity entity)
     {
-        Map<Entity, LazyOptional<ITemperatureCap>> cache = entity.level().isClientSide ? CLIENT_CAP_CACHE : SERVER_CAP_CACHE;
-        return cache.computeIfAbsent(entity, e ->
-        {   LazyOptional<ITemperatureCap> cap = e.getCapability(entity instanceof Player ? ModCapabilities.PLAYER_TEMPERATURE : ModCapabilities.ENTITY_TEMPERATURE);
-            cap.addListener((opt) -> cache.remove(e));
-            return cap;
-        });
+        ICachedCapabilities cache = (ICachedCapabilities) entity;
+        LazyOptional<ITemperatureCap> cap = cache.getCachedTemperatureCap();
+        if (cap == null)
+        {
+            LazyOptional<ITemperatureCap> newCap = entity.getCapability(entity instanceof Player ? ModCapabilities.PLAYER_TEMPERATURE : ModCapabilities.ENTITY_TEMPERATURE);
+            cache.setCachedTemperatureCap(newCap);
+            // Re-query the capability if it is invalidated (i.e. when a player respawns)
+            // Entities without the capability keep the empty optional, so it isn't looked up every tick
+            if (newCap.isPresent())
+            {   newCap.addListener((opt) ->
+                {   if (cache.getCachedTemperatureCap() == newCap) cache.setCachedTemperatureCap(null);
+                });
+            }
+            cap = newCap;
+        }
+        return cap;
+    }
+
+    /**
+     * Queues a temperature sync to be sent at the end of the server tick
+     * @see Temperature#updateTemperature(LivingEntity, int, boolean)
+     */
+    public static void queueTemperatureSync(LivingEntity entity, int types, boolean instant)
+    {   QUEUED_TEMP_SYNCS.mergeInt(entity, instant ? types | INSTANT_SYNC : types, (a, b) -> a | b);
+    }
+
+    /**
+     * Send all temperature syncs queued this tick, so each entity is synced at most once per tick
+     */
+    @SubscribeEvent
+    public static void sendQueuedTemperatureSyncs(TickEvent.ServerTickEvent event)
+    {
+        if (event.phase != TickEvent.Phase.END || QUEUED_TEMP_SYNCS.isEmpty()) return;
+
+        for (Object2IntMap.Entry<LivingEntity> entry : QUEUED_TEMP_SYNCS.object2IntEntrySet())
+        {
+            LivingEntity entity = entry.getKey();
+            int types = entry.getIntValue();
+            if (entity.isRemoved()) continue;
+
+            getTemperatureCap(entity).ifPresent(cap ->
+            {
+                ColdSweatPacketHandler.INSTANCE.send(entity instanceof ServerPlayer player
+                                ? PacketDistributor.PLAYER.with(() -> player)
+                                : PacketDistributor.TRACKING_ENTITY_AND_SELF.with(() -> entity),
+                new TemperatureSyncMessage(entity, cap, types & ~INSTANT_SYNC, (types & INSTANT_SYNC) != 0));
+            });
+        }
+        QUEUED_TEMP_SYNCS.clear();
     }
 
     /**
@@ -426,6 +475,34 @@ public class EntityTempManager
         });
     }
 
+    /**
+     * The client creates a new player when logging in or changing dimensions, so all modifiers and temperatures have to be sent again
+     */
+    @SubscribeEvent
+    public static void resyncOnLogin(PlayerEvent.PlayerLoggedInEvent event)
+    {   resyncPlayer(event.getEntity());
+    }
+
+    @SubscribeEvent
+    public static void resyncOnDimensionChange(PlayerEvent.PlayerChangedDimensionEvent event)
+    {   resyncPlayer(event.getEntity());
+    }
+
+    private static void resyncPlayer(Player player)
+    {
+        if (!player.level().isClientSide)
+        {
+            getTemperatureCap(player).ifPresent(cap ->
+            {
+                Temperature.updateModifiers(player, cap, true);
+                // Temperatures are sent on the player's next tick
+                if (cap instanceof PlayerTempCap playerCap)
+                {   playerCap.neverSynced = true;
+                }
+            });
+        }
+    }
+
     public static Set<EntityType<?>> getEntitiesWithTemperature()
     {   return ImmutableSet.copyOf(TEMPERATURE_ENABLED_ENTITIES);
     }
@@ -0,0 +1,21 @@
+package com.momosoftworks.coldsweat.common.capability;
+
+import net.minecraftforge.common.util.LazyOptional;
+
+import javax.annotation.Nullable;
+
+/**
+ * Implemented on every entity (see {@link com.momosoftworks.coldsweat.mixin.MixinEntityCapabilities}).<br>
+ * Holds the entity's Cold Sweat capabilities after they are first looked up, so they don't have to be queried
+ * from the entity's capability providers each time, and are released along with the entity.
+ */
+public interface ICachedCapabilities
+{
+    @Nullable
+    LazyOptional<ITemperatureCap> getCachedTemperatureCap();
+    void setCachedTemperatureCap(@Nullable LazyOptional<ITemperatureCap> cap);
+
+    @Nullable
+    LazyOptional<IShearableCap> getCachedFurCap();
+    void setCachedFurCap(@Nullable LazyOptional<IShearableCap> cap);
+}
@@ -31,7 +31,7 @@ import java.util.*;
  */
 public class PlayerTempCap implements ITemperatureCap
 {
-    private double[] syncedValues = new double[5];
+    private final double[] syncedValues = new double[Type.values().length];
     boolean neverSynced = true;
 
     // Map valid temperature types to a new EnumMap
@@ -43,7 +43,7 @@ public class PlayerTempCap implements ITemperatureCap
     // Map valid modifier types to a new EnumMap
     private final EnumMap<Type, List<TempModifier>> modifiers = Arrays.stream(VALID_MODIFIER_TYPES).collect(
             () -> new EnumMap<>(Type.class),
-            (map, type) -> map.put(type, new ArrayList<>()),
+            (map, type) -> map.put(type, new TempModifierList()),
             EnumMap::putAll);
 
     public boolean showBodyTemp;
@@ -186,16 +186,18 @@ public class PlayerTempCap implements ITemperatureCap
         // Write the new temperature values
         this.setTemperatures(player, new double[]{newWorldTemp, newMaxOffset, newMinOffset, CSMath.clamp(newCoreTemp, -150, 150), newBaseTemp});
 
-        // Sync the temperature values to the client
-        if ((neverSynced
-        || ((int) syncedValues[0] != (int) newCoreTemp
-        || ((int) syncedValues[1] != (int) newBaseTemp) && showBodyTemp)
-        || (Math.abs(syncedValues[2] - newWorldTemp) >= 0.02
-        ||  Math.abs(syncedValues[3] - newMaxOffset) >= 0.02
-        ||  Math.abs(syncedValues[4] - newMinOffset) >= 0.02)))
+        // Sync the temperature values that changed to the client
+        int changedTypes = 0;
+        for (Type type : VALID_TEMPERATURE_TYPES)
         {
-            Temperature.updateTemperature(player, this, false);
-            syncedValues = new double[] { newCoreTemp, newBaseTemp, newWorldTemp, newMaxOffset, newMinOffset };
+            double temp = getTemp(type);
+            if (neverSynced || this.shouldSync(type, temp))
+            {   changedTypes |= 1 << type.ordinal();
+                syncedValues[type.ordinal()] = temp;
+            }
+        }
+        if (changedTypes != 0)
+        {   Temperature.updateTemperature(player, changedTypes, false);
             neverSynced = false;
         }
 
@@ -230,6 +232,17 @@ public class PlayerTempCap implements ITemperatureCap
         else setTemp(Type.CORE, 0);
     }
 
+    private boolean shouldSync(Type type, double temp)
+    {
+        double synced = syncedValues[type.ordinal()];
+        return switch (type)
+        {
+            case CORE -> (int) synced != (int) temp;
+            case BASE -> (int) synced != (int) temp && showBodyTemp;
+            default -> Math.abs(synced - temp) >= 0.02;
+        };
+    }
+
     private void setTemperatures(ServerPlayer player, double[] temps)
     {
         for (Type type : VALID_TEMPERATURE_TYPES)
@@ -41,15 +41,10 @@ import oshi.util.tuples.Triplet;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.util.HashMap;
-import java.util.Map;
 
 @Mod.EventBusSubscriber
 public class ShearableFurManager
 {
-    public static Map<Entity, LazyOptional<IShearableCap>> SERVER_CAP_CACHE = new HashMap<>();
-    public static Map<Entity, LazyOptional<IShearableCap>> CLIENT_CAP_CACHE = new HashMap<>();
-
     @SubscribeEvent
     public static void attachCapabilityToEntityHandler(AttachCapabilitiesEvent<Entity> event)
     {
@@ -93,12 +88,21 @@ public class ShearableFurManager
 
     public static LazyOptional<IShearableCap> getFurCap(Entity entity)
     {
-        Map<Entity, LazyOptional<IShearableCap>> cache = entity.level().isClientSide ? CLIENT_CAP_CACHE : SERVER_CAP_CACHE;
-        return cache.computeIfAbsent(entity, e ->
-        {   LazyOptional<IShearableCap> cap = e.getCapability(ModCapabilities.SHEARABLE_FUR);
-            cap.addListener((opt) -> cache.remove(e));
-            return cap;
-        });
+        ICachedCapabilities cache = (ICachedCapabilities) entity;
+        LazyOptional<IShearableCap> cap = cache.getCachedFurCap();
+        if (cap == null)
+        {
+            LazyOptional<IShearableCap> newCap = entity.getCapability(ModCapabilities.SHEARABLE_FUR);
+            cache.setCachedFurCap(newCap);
+            // Entities without the capability keep the empty optional, so it isn't looked up every tick
+            if (newCap.isPresent())
+            {   newCap.addListener((opt) ->
+                {   if (cache.getCachedFurCap() == newCap) cache.setCachedFurCap(null);
+                });
+            }
+            cap = newCap;
+        }
+        return cap;
     }
 
     @SubscribeEvent
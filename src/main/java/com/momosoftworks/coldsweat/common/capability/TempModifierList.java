@@ -0,0 +1,230 @@
+package com.momosoftworks.coldsweat.common.capability;
+
+import com.momosoftworks.coldsweat.api.registry.TempModifierRegistry;
+import com.momosoftworks.coldsweat.api.temperature.modifier.TempModifier;
+import com.momosoftworks.coldsweat.api.util.Temperature;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.network.FriendlyByteBuf;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The list of TempModifiers of one type held by a temperature capability.<br>
+ * Keeps an array copy of its contents for {@link Temperature#apply}, which is only rebuilt after the list is modified.<br>
+ * <br>
+ * Also tracks what was last synced to the client, so only modifiers that changed have to be sent.
+ * Modifier IDs are sent once and then referenced by their index in a table that both sides build up as they sync.
+ */
+public class TempModifierList extends ArrayList<TempModifier>
+{
+    private static final TempModifier[] EMPTY = new TempModifier[0];
+
+    private TempModifier[] array = EMPTY;
+    private int arrayModCount = 0;
+
+    // The state of each modifier as of the last sync, and the instances it was read from/into
+    private final List<SyncedModifier> synced = new ArrayList<>();
+    private final List<TempModifier> syncedInstances = new ArrayList<>();
+    private final List<String> syncedIds = new ArrayList<>();
+    private final Object2IntOpenHashMap<String> syncedIdIndices = new Object2IntOpenHashMap<>();
+    private boolean hasSynced = false;
+
+    public TempModifierList()
+    {   syncedIdIndices.defaultReturnValue(-1);
+    }
+
+    @Override
+    public TempModifier set(int index, TempModifier element)
+    {   // ArrayList doesn't count replacing an element as a modification
+        modCount++;
+        return super.set(index, element);
+    }
+
+    /**
+     * @return An array of the modifiers in this list. This is shared, and must not be modified.
+     */
+    public TempModifier[] getArray()
+    {
+        if (arrayModCount != modCount)
+        {   array = this.toArray(EMPTY);
+            arrayModCount = modCount;
+        }
+        return array;
+    }
+
+    /**
+     * @param full Whether all modifiers should be re-sent. Always true for the first sync.
+     * @return The indices of the modifiers that changed since the last sync, or null if nothing changed
+     */
+    @Nullable
+    public int[] getSyncChanges(boolean full)
+    {
+        full |= !hasSynced;
+        IntArrayList changes = new IntArrayList();
+        for (int i = 0; i < this.size(); i++)
+        {
+            if (full || i >= synced.size() || !synced.get(i).matches(this.get(i), syncedInstances.get(i)))
+            {   changes.add(i);
+            }
+        }
+        if (!full && changes.isEmpty() && synced.size() == this.size()) return null;
+        return changes.toIntArray();
+    }
+
+    /**
+     * Writes the given changes and marks them as synced.
+     * @param changes The indices returned by {@link #getSyncChanges(boolean)}
+     */
+    public void writeSync(FriendlyByteBuf buffer, int[] changes, boolean full)
+    {
+        full |= !hasSynced;
+        if (full) this.resetSync();
+        hasSynced = true;
+
+        buffer.writeBoolean(full);
+        buffer.writeVarInt(this.size());
+        buffer.writeVarInt(changes.length);
+        this.trimSynced(this.size());
+        for (int index : changes)
+        {
+            TempModifier modifier = this.get(index);
+            SyncedModifier entry = new SyncedModifier(modifier.getID(), modifier.getNBT().copy(), modifier.getTickRate(), modifier.getExpireTime());
+
+            buffer.writeVarInt(index);
+            this.writeId(buffer, entry.id());
+            buffer.writeVarInt(entry.tickRate());
+            buffer.writeVarInt(entry.expireTime() + 1);
+            buffer.writeVarInt(modifier.getTicksExisted());
+            buffer.writeBoolean(!entry.nbt().isEmpty());
+            if (!entry.nbt().isEmpty())
+            {   buffer.writeNbt(entry.nbt());
+            }
+            this.setSynced(index, entry, modifier);
+        }
+    }
+
+    /**
+     * Applies changes written by {@link #writeSync(FriendlyByteBuf, int[], boolean)}.<br>
+     * Modifiers that weren't changed keep their existing instances.
+     */
+    public void readSync(FriendlyByteBuf buffer)
+    {
+        if (buffer.readBoolean()) this.resetSync();
+        hasSynced = true;
+
+        int size = buffer.readVarInt();
+        int changeCount = buffer.readVarInt();
+        this.trimSynced(size);
+        for (int i = 0; i < changeCount; i++)
+        {
+            int index = buffer.readVarInt();
+            String id = this.readId(buffer);
+            int tickRate = buffer.readVarInt();
+            int expireTime = buffer.readVarInt() - 1;
+            int ticksExisted = buffer.readVarInt();
+            CompoundTag nbt = buffer.readBoolean() ? buffer.readNbt() : new CompoundTag();
+
+            // Unregistered modifiers are still tracked, so the indices of other modifiers stay the same
+            TempModifier modifier = TempModifierRegistry.getEntryFor(id).orElse(null);
+            if (modifier != null)
+            {   modifier.setNBT(nbt.copy());
+                modifier.tickRate(tickRate);
+                modifier.expires(expireTime);
+                modifier.setTicksExisted(ticksExisted);
+            }
+            this.setSynced(index, new SyncedModifier(id, nbt, tickRate, expireTime), modifier);
+        }
+
+        this.clear();
+        for (int i = 0; i < syncedInstances.size(); i++)
+        {   TempModifier modifier = syncedInstances.get(i);
+            if (modifier != null) this.add(modifier);
+        }
+    }
+
+    /**
+     * @return A hash of the last synced state, used by the client to check that it is in sync with the server
+     */
+    public int getSyncChecksum()
+    {
+        int hash = 1;
+        for (int i = 0; i < synced.size(); i++)
+        {   hash = 31 * hash + synced.get(i).checksum();
+        }
+        return hash;
+    }
+
+    private void resetSync()
+    {
+        synced.clear();
+        syncedInstances.clear();
+        syncedIds.clear();
+        syncedIdIndices.clear();
+    }
+
+    private void trimSynced(int size)
+    {
+        while (synced.size() > size)
+        {   synced.remove(synced.size() - 1);
+            syncedInstances.remove(syncedInstances.size() - 1);
+        }
+    }
+
+    private void setSynced(int index, SyncedModifier entry, @Nullable TempModifier instance)
+    {
+        if (index < synced.size())
+        {   synced.set(index, entry);
+            syncedInstances.set(index, instance);
+        }
+        else if (index == synced.size())
+        {   synced.add(entry);
+            syncedInstances.add(instance);
+        }
+        else throw new IndexOutOfBoundsException("Synced modifier index " + index + " is out of order");
+    }
+
+    private void writeId(FriendlyByteBuf buffer, String id)
+    {
+        int index = syncedIdIndices.getInt(id);
+        if (index >= 0)
+        {   buffer.writeVarInt(index + 1);
+        }
+        else
+        {   buffer.writeVarInt(0);
+            buffer.writeUtf(id);
+            syncedIdIndices.put(id, syncedIds.size());
+            syncedIds.add(id);
+        }
+    }
+
+    private String readId(FriendlyByteBuf buffer)
+    {
+        int index = buffer.readVarInt();
+        if (index > 0) return syncedIds.get(index - 1);
+
+        String id = buffer.readUtf();
+        syncedIdIndices.put(id, syncedIds.size());
+        syncedIds.add(id);
+        return id;
+    }
+
+    private record SyncedModifier(String id, CompoundTag nbt, int tickRate, int expireTime)
+    {
+        boolean matches(TempModifier modifier, @Nullable TempModifier syncedInstance)
+        {
+            return id.equals(modifier.getID()) && tickRate == modifier.getTickRate() && expireTime == modifier.getExpireTime()
+                && nbt.equals(modifier.getNBT())
+                // A new instance of an expiring modifier restarts its timer
+                && (expireTime == -1 || modifier == syncedInstance);
+        }
+
+        int checksum()
+        {   return Objects.hash(id, nbt, tickRate, expireTime);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.momosoftworks.coldsweat.common.capability;
+
+import com.momosoftworks.coldsweat.api.temperature.modifier.TempModifier;
+import com.momosoftworks.coldsweat.api.util.Temperature;
+import com.momosoftworks.coldsweat.config.ConfigSettings;
+import net.minecraft.util.Mth;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.entity.player.Player;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+/**
+ * Decides when TempModifiers with a tick rate are recalculated (see {@link TempModifier#tickRate(int)}).<br>
+ * Each entity is offset to its own tick slot, so entities that were loaded at the same time don't all recalculate on the same tick.
+ * Once the time budget for the current tick is used up, recalculations for entities other than players are deferred to the next tick.
+ */
+@Mod.EventBusSubscriber
+public class TempUpdateScheduler
+{
+    // Deferred modifiers are recalculated regardless of the budget once they are this many intervals late
+    private static final int MAX_DEFERRED_INTERVALS = 4;
+
+    private static long tickNanos = 0;
+    private static int tickDeferred = 0;
+    private static int queueDepth = 0;
+    private static long budgetOverrun = 0;
+
+    /**
+     * @return True if the modifier should be recalculated this tick, rather than reusing its last result
+     */
+    public static boolean isDue(LivingEntity entity, TempModifier modifier)
+    {
+        int tickRate = modifier.getTickRate();
+        if (tickRate <= 1 || modifier.getTicksExisted() == 0) return true;
+
+        int sinceUpdate = entity.tickCount - modifier.getLastUpdateTick();
+        // Run in the entity's slot, or as soon as possible after a deferred update
+        if (Math.floorMod(entity.tickCount + getPhase(entity), tickRate) != 0 && sinceUpdate <= tickRate) return false;
+        if (entity.level().isClientSide || entity instanceof Player) return true;
+
+        if (isOverBudget() && sinceUpdate < tickRate * MAX_DEFERRED_INTERVALS)
+        {   tickDeferred++;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Recalculates the modifier, counting the time spent against this tick's budget
+     */
+    public static double update(TempModifier modifier, double temp, LivingEntity entity, Temperature.Type type)
+    {
+        if (modifier.getTickRate() <= 1 || entity.level().isClientSide)
+        {   return modifier.update(temp, entity, type);
+        }
+        long start = System.nanoTime();
+        double result = modifier.update(temp, entity, type);
+        tickNanos += System.nanoTime() - start;
+        return result;
+    }
+
+    private static int getPhase(LivingEntity entity)
+    {   return Mth.murmurHash3Mixer(entity.getId());
+    }
+
+    private static boolean isOverBudget()
+    {
+        long budget = ConfigSettings.TEMP_UPDATE_BUDGET.get() * 1000L;
+        return budget > 0 && tickNanos >= budget;
+    }
+
+    /**
+     * @return The number of recalculations deferred during the last server tick
+     */
+    public static int getQueueDepth()
+    {   return queueDepth;
+    }
+
+    /**
+     * @return How far the time spent on recalculations during the last server tick went over the budget, in nanoseconds
+     */
+    public static long getBudgetOverrun()
+    {   return budgetOverrun;
+    }
+
+    @SubscribeEvent
+    public static void onServerTick(TickEvent.ServerTickEvent event)
+    {
+        if (event.phase == TickEvent.Phase.END)
+        {
+            long budget = ConfigSettings.TEMP_UPDATE_BUDGET.get() * 1000L;
+            queueDepth = tickDeferred;
+            budgetOverrun = budget > 0 ? Math.max(0, tickNanos - budget) : 0;
+            tickDeferred = 0;
+            tickNanos = 0;
+        }
+    }
+}
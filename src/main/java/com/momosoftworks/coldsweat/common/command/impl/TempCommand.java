@@ -7,6 +7,7 @@ import com.momosoftworks.coldsweat.api.temperature.modifier.TempModifier;
 import com.momosoftworks.coldsweat.api.util.Temperature;
 import com.momosoftworks.coldsweat.common.command.BaseCommand;
 import com.momosoftworks.coldsweat.common.capability.EntityTempManager;
+import com.momosoftworks.coldsweat.common.capability.TempUpdateScheduler;
 import com.momosoftworks.coldsweat.util.math.CSMath;
 import net.minecraft.commands.CommandSourceStack;
 import net.minecraft.commands.Commands;
@@ -70,6 +71,9 @@ public class TempCommand extends BaseCommand
                                                   source.getSource(), EntityArgument.getEntity(source, "entity"), Temperature.Type.FREEZING_POINT))
                                   )
                         )
+                )
+                .then(Commands.literal("scheduler")
+                        .executes(source -> executeShowScheduler(source.getSource()))
                 );
     }
 
@@ -133,4 +137,12 @@ public class TempCommand extends BaseCommand
         }
         return Command.SINGLE_SUCCESS;
     }
+
+    private int executeShowScheduler(CommandSourceStack source)
+    {
+        int deferred = TempUpdateScheduler.getQueueDepth();
+        String overrun = String.valueOf(CSMath.sigFigs(TempUpdateScheduler.getBudgetOverrun() / 1000000.0, 3));
+        source.sendSuccess(() -> Component.translatable("commands.cold_sweat.temperature.scheduler.result", deferred, overrun), false);
+        return Command.SINGLE_SUCCESS;
+    }
 }
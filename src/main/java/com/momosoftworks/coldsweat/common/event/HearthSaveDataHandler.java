@@ -13,7 +13,6 @@ import java.util.*;
 @Mod.EventBusSubscriber
 public class HearthSaveDataHandler
 {
-    public static final Set<Pair<BlockPos, ResourceLocation>> HEARTH_POSITIONS = new HashSet<>();
     public static final Set<Pair<BlockPos, ResourceLocation>> DISABLED_HEARTHS = new HashSet<>();
 
     /**
@@ -29,6 +29,7 @@ public class ConfigSettings
     public static final Map<String, ValueHolder<?>> CONFIG_SETTINGS = new ConcurrentHashMap<>();
 
     public static Difficulty DEFAULT_DIFFICULTY = Difficulty.NORMAL;
+    private static volatile int LOAD_COUNT = 0;
 
     // Settings visible in the config screen
     public static final ValueHolder<Integer> DIFFICULTY;
@@ -49,6 +50,7 @@ public class ConfigSettings
     public static final ValueHolder<Map<ResourceLocation, Pair<Double, Temperature.Units>>> DIMENSION_TEMPS;
     public static final ValueHolder<Map<ResourceLocation, Pair<Double, Temperature.Units>>> DIMENSION_OFFSETS;
     public static final ValueHolder<Double> CAVE_INSULATION;
+    public static final ValueHolder<Integer> THERMOLITH_HEARTBEAT;
     public static final ValueHolder<Double[]> SUMMER_TEMPS;
     public static final ValueHolder<Double[]> AUTUMN_TEMPS;
     public static final ValueHolder<Double[]> WINTER_TEMPS;
@@ -88,6 +90,12 @@ public class ConfigSettings
     public static final ValueHolder<Triplet<Integer, Integer, Double>> FUR_TIMINGS;
     public static final ValueHolder<Map<ResourceLocation, Integer>> CHAMELEON_BIOMES;
     public static final ValueHolder<Map<ResourceLocation, Integer>> GOAT_BIOMES;
+    public static final ValueHolder<Integer> ENTITY_TEMP_SYNC_INTERVAL;
+    public static final ValueHolder<Integer> TEMP_UPDATE_BUDGET;
+    public static final ValueHolder<Boolean> ASYNC_BLOCK_TEMPS;
+    public static final ValueHolder<Integer> ASYNC_MAX_STALENESS;
+    public static final ValueHolder<Integer> WORLD_TEMP_CELL_SIZE;
+    public static final ValueHolder<Integer> WORLD_TEMP_CACHE_TIME;
 
 
     // Makes the settings instantiation collapsible & easier to read
@@ -193,6 +201,8 @@ public class ConfigSettings
                                            decoder -> decoder.getDouble("CaveInsulation"),
                                            saver -> WorldSettingsConfig.getInstance().setCaveInsulation(saver));
 
+        THERMOLITH_HEARTBEAT = addSetting("thermolith_heartbeat", () -> WorldSettingsConfig.getInstance().getThermolithHeartbeat());
+
         BOILER_FUEL = addSetting("boiler_fuel_items", () -> ConfigHelper.getItemsWithValues(ItemSettingsConfig.getInstance().getBoilerFuelItems()));
         ICEBOX_FUEL = addSetting("icebox_fuel_items", () -> ConfigHelper.getItemsWithValues(ItemSettingsConfig.getInstance().getIceboxFuelItems()));
         HEARTH_FUEL = addSetting("hearth_fuel_items", () -> ConfigHelper.getItemsWithValues(ItemSettingsConfig.getInstance().getHearthFuelItems()));
@@ -452,6 +462,18 @@ public class ConfigSettings
             return map;
         });
 
+        ENTITY_TEMP_SYNC_INTERVAL = addSetting("entity_temp_sync_interval", () -> EntitySettingsConfig.getInstance().getTempSyncInterval());
+
+        TEMP_UPDATE_BUDGET = addSetting("temp_update_budget", () -> EntitySettingsConfig.getInstance().getTempUpdateBudget());
+
+        ASYNC_BLOCK_TEMPS = addSetting("async_block_temps", () -> EntitySettingsConfig.getInstance().isAsyncBlockTempsEnabled());
+
+        ASYNC_MAX_STALENESS = addSetting("async_max_staleness", () -> EntitySettingsConfig.getInstance().getAsyncMaxStaleness());
+
+        WORLD_TEMP_CELL_SIZE = addSetting("world_temp_cell_size", () -> EntitySettingsConfig.getInstance().getWorldTempCellSize());
+
+        WORLD_TEMP_CACHE_TIME = addSetting("world_temp_cache_time", () -> EntitySettingsConfig.getInstance().getWorldTempCacheTime());
+
         BLOCK_RANGE = addSyncedSetting("block_range", () -> WorldSettingsConfig.getInstance().getBlockRange(),
         encoder -> ConfigHelper.writeNBTInt(encoder, "BlockRange"),
         decoder -> decoder.getInt("BlockRange"),
@@ -601,6 +623,7 @@ public class ConfigSettings
         {   value.decode(tag);
             return value;
         });
+        LOAD_COUNT++;
     }
 
     public static void saveValues()
@@ -614,5 +637,13 @@ public class ConfigSettings
 
     public static void load()
     {   CONFIG_SETTINGS.values().forEach(ValueHolder::load);
+        LOAD_COUNT++;
+    }
+
+    /**
+     * @return A number that changes whenever the settings are loaded or synced
+     */
+    public static int getLoadCount()
+    {   return LOAD_COUNT;
     }
 }
@@ -20,6 +20,12 @@ public class EntitySettingsConfig
 
     private static final ForgeConfigSpec.ConfigValue<List<? extends List<?>>> insulatedEntities;
     private static final ForgeConfigSpec.ConfigValue<List<?>> goatFurGrowth;
+    private static final ForgeConfigSpec.ConfigValue<Integer> tempSyncInterval;
+    private static final ForgeConfigSpec.ConfigValue<Integer> tempUpdateBudget;
+    private static final ForgeConfigSpec.ConfigValue<Boolean> asyncBlockTemps;
+    private static final ForgeConfigSpec.ConfigValue<Integer> asyncMaxStaleness;
+    private static final ForgeConfigSpec.ConfigValue<Integer> worldTempCellSize;
+    private static final ForgeConfigSpec.ConfigValue<Integer> worldTempCacheTime;
     private static final EntitySettingsConfig INSTANCE = new EntitySettingsConfig();
     private static ForgeConfigSpec.ConfigValue<List<? extends List<?>>> chameleonBiomes;
     private static ForgeConfigSpec.ConfigValue<List<? extends List<?>>> goatBiomes;
@@ -53,6 +59,34 @@ public class EntitySettingsConfig
                 ),
                 it -> it instanceof Number);
 
+        tempSyncInterval = BUILDER
+                .comment("The minimum number of ticks between temperature updates sent to clients for entities other than players",
+                         "This interval is increased by 1x for every 32 blocks between the entity and the nearest player")
+                .defineInRange("Entity Temperature Sync Interval", 10, 1, 1200);
+
+        tempUpdateBudget = BUILDER
+                .comment("The time (in microseconds) that can be spent recalculating world temperature each tick before entities other than players are deferred to later ticks",
+                         "Set to 0 to disable the limit")
+                .defineInRange("Temperature Update Budget", 2000, 0, 50000);
+
+        asyncBlockTemps = BUILDER
+                .comment("When enabled, the effect of nearby blocks on entities' temperature is calculated on worker threads",
+                         "Results are applied on a later tick, so temperature may react to block changes slightly later")
+                .define("Asynchronous Block Temperature", false);
+
+        asyncMaxStaleness = BUILDER
+                .comment("The maximum number of ticks an asynchronous calculation can take before the server waits for it to finish")
+                .defineInRange("Asynchronous Max Staleness", 10, 1, 200);
+
+        worldTempCellSize = BUILDER
+                .comment("Entities within the same cube of this size (in blocks) share their biome and underground temperature calculations")
+                .defineInRange("World Temperature Cell Size", 2, 1, 16);
+
+        worldTempCacheTime = BUILDER
+                .comment("The number of ticks a shared biome or underground temperature calculation is reused for",
+                         "Set to 0 to disable sharing")
+                .defineInRange("World Temperature Cache Time", 10, 0, 200);
+
         BUILDER.pop();
 
         BUILDER.push("Mob Spawning");
@@ -176,6 +210,30 @@ public class EntitySettingsConfig
     {   goatFurGrowth.set(list);
     }
 
+    public int getTempSyncInterval()
+    {   return tempSyncInterval.get();
+    }
+
+    public int getTempUpdateBudget()
+    {   return tempUpdateBudget.get();
+    }
+
+    public boolean isAsyncBlockTempsEnabled()
+    {   return asyncBlockTemps.get();
+    }
+
+    public int getAsyncMaxStaleness()
+    {   return asyncMaxStaleness.get();
+    }
+
+    public int getWorldTempCellSize()
+    {   return worldTempCellSize.get();
+    }
+
+    public int getWorldTempCacheTime()
+    {   return worldTempCacheTime.get();
+    }
+
     public List<? extends List<?>> getChameleonSpawnBiomes()
     {   return chameleonBiomes.get();
     }
@@ -24,6 +24,7 @@ public class WorldSettingsConfig
     public static final ForgeConfigSpec.ConfigValue<List<? extends List<?>>> dimensionTemps;
 
     public static final ForgeConfigSpec.ConfigValue<Double> caveInsulation;
+    public static final ForgeConfigSpec.IntValue thermolithHeartbeat;
 
     public static final ForgeConfigSpec.ConfigValue<List<? extends List<Object>>> blockTemps;
     public static final ForgeConfigSpec.IntValue blockRange;
@@ -460,6 +461,11 @@ public class WorldSettingsConfig
                          "0.0 = no insulation, 1.0 = full insulation")
                 .defineInRange("Cave Insulation Strength", 1.0, 0.0, 1.0);
 
+        thermolithHeartbeat = BUILDER
+                .comment("The maximum number of ticks between Thermolith updates",
+                         "Thermoliths also update when nearby blocks, the time of day, or the weather change")
+                .defineInRange("Thermolith Update Interval", 1200, 20, 24000);
+
         BUILDER.pop();
 
         /* Serene Seasons config */
@@ -541,6 +547,10 @@ public class WorldSettingsConfig
     {   return caveInsulation.get();
     }
 
+    public int getThermolithHeartbeat()
+    {   return thermolithHeartbeat.get();
+    }
+
     public Double[] getSummerTemps()
     {   return summerTemps.get().stream().map(Number::doubleValue).toArray(Double[]::new);
     }
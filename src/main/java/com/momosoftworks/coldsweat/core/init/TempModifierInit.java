@@ -10,6 +10,7 @@ import com.momosoftworks.coldsweat.api.temperature.modifier.*;
 import com.momosoftworks.coldsweat.config.WorldSettingsConfig;
 import com.momosoftworks.coldsweat.util.compat.CompatManager;
 import com.momosoftworks.coldsweat.util.serialization.ConfigHelper;
+import com.momosoftworks.coldsweat.util.world.HeatSourceIndex;
 import com.momosoftworks.coldsweat.util.math.CSMath;
 import net.minecraft.core.BlockPos;
 import net.minecraft.world.entity.LivingEntity;
@@ -52,6 +53,8 @@ public class TempModifierInit
             ColdSweat.LOGGER.error("Registering BlockTemps failed!");
             e.printStackTrace();
         }
+        // Indexed heat sources may no longer match the registered BlockTemps
+        HeatSourceIndex.clearAll();
     }
 
     // Register BlockTemps
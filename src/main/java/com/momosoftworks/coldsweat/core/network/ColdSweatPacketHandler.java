@@ -8,7 +8,7 @@ import net.minecraftforge.network.simple.SimpleChannel;
 
 public class ColdSweatPacketHandler
 {
-    private static final String PROTOCOL_VERSION = "0.1.2";
+    private static final String PROTOCOL_VERSION = "0.1.6";
     public static final SimpleChannel INSTANCE = NetworkRegistry.newSimpleChannel(
             new ResourceLocation(ColdSweat.MOD_ID, "main"),
             () -> PROTOCOL_VERSION,
@@ -24,11 +24,13 @@ public class ColdSweatPacketHandler
         INSTANCE.registerMessage(3, ClientConfigAskMessage.class, ClientConfigAskMessage::encode, ClientConfigAskMessage::decode, ClientConfigAskMessage::handle);
         INSTANCE.registerMessage(4, PlaySoundMessage.class, PlaySoundMessage::encode, PlaySoundMessage::decode, PlaySoundMessage::handle);
         INSTANCE.registerMessage(5, BlockDataUpdateMessage.class, BlockDataUpdateMessage::encode, BlockDataUpdateMessage::decode, BlockDataUpdateMessage::handle);
-        INSTANCE.registerMessage(6, HearthResetMessage.class, HearthResetMessage::encode, HearthResetMessage::decode, HearthResetMessage::handle);
+        INSTANCE.registerMessage(6, HearthCoverageMessage.class, HearthCoverageMessage::encode, HearthCoverageMessage::decode, HearthCoverageMessage::handle);
         INSTANCE.registerMessage(7, DisableHearthParticlesMessage.class, DisableHearthParticlesMessage::encode, DisableHearthParticlesMessage::decode, DisableHearthParticlesMessage::handle);
         INSTANCE.registerMessage(8, ParticleBatchMessage.class, ParticleBatchMessage::encode, ParticleBatchMessage::decode, ParticleBatchMessage::handle);
         INSTANCE.registerMessage(9, SyncShearableDataMessage.class, SyncShearableDataMessage::encode, SyncShearableDataMessage::decode, SyncShearableDataMessage::handle);
         INSTANCE.registerMessage(10, ChameleonEatMessage.class, ChameleonEatMessage::encode, ChameleonEatMessage::decode, ChameleonEatMessage::handle);
         INSTANCE.registerMessage(11, SyncForgeDataMessage.class, SyncForgeDataMessage::encode, SyncForgeDataMessage::decode, SyncForgeDataMessage::handle);
+        INSTANCE.registerMessage(12, RequestModifierSyncMessage.class, RequestModifierSyncMessage::encode, RequestModifierSyncMessage::decode, RequestModifierSyncMessage::handle);
+        INSTANCE.registerMessage(13, RequestHearthCoverageMessage.class, RequestHearthCoverageMessage::encode, RequestHearthCoverageMessage::decode, RequestHearthCoverageMessage::handle);
     }
 }
@@ -0,0 +1,109 @@
+package com.momosoftworks.coldsweat.core.network.message;
+
+import com.momosoftworks.coldsweat.ColdSweat;
+import com.momosoftworks.coldsweat.common.blockentity.HearthBlockEntity;
+import com.momosoftworks.coldsweat.core.network.ColdSweatPacketHandler;
+import com.momosoftworks.coldsweat.util.world.HearthCoverage;
+import io.netty.buffer.Unpooled;
+import net.minecraft.client.Minecraft;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraftforge.network.NetworkEvent;
+
+import javax.annotation.Nullable;
+import java.util.function.Supplier;
+
+/**
+ * Syncs the blocks covered by a Hearth to the client. See {@link HearthCoverage#writeChanges}.<br>
+ * Usually only the sections that changed since the last sync are sent. If the client doesn't have the coverage
+ * those changes are based on, it asks for a full sync with {@link RequestHearthCoverageMessage}.
+ */
+public class HearthCoverageMessage
+{
+    // Base version of a message that replaces the client's coverage entirely
+    private static final int FULL = -1;
+
+    BlockPos blockPos;
+    int baseVersion;
+    int version;
+    byte[] data;
+
+    HearthCoverageMessage(BlockPos blockPos, int baseVersion, int version, byte[] data)
+    {
+        this.blockPos = blockPos;
+        this.baseVersion = baseVersion;
+        this.version = version;
+        this.data = data;
+    }
+
+    /**
+     * Writes the changes between the two coverages, and sets the version of {@code coverage} to the next version after {@code base}.
+     * @param base The coverage last sent to clients, or null to send all of {@code coverage}
+     * @return The message, or null if nothing has changed since {@code base}
+     */
+    @Nullable
+    public static HearthCoverageMessage create(BlockPos pos, HearthCoverage coverage, @Nullable HearthCoverage base)
+    {
+        FriendlyByteBuf buffer = new FriendlyByteBuf(Unpooled.buffer());
+        if (coverage.writeChanges(buffer, base) == 0 && base != null) return null;
+        if (base != null)
+        {   coverage.setVersion(base.getVersion() + 1);
+        }
+
+        byte[] data = new byte[buffer.readableBytes()];
+        buffer.readBytes(data);
+        return new HearthCoverageMessage(pos, base != null ? base.getVersion() : FULL, coverage.getVersion(), data);
+    }
+
+    public static void encode(HearthCoverageMessage message, FriendlyByteBuf buffer)
+    {
+        buffer.writeBlockPos(message.blockPos);
+        buffer.writeVarInt(message.baseVersion + 1);
+        buffer.writeVarInt(message.version);
+        buffer.writeBytes(message.data);
+    }
+
+    public static HearthCoverageMessage decode(FriendlyByteBuf buffer)
+    {
+        BlockPos blockPos = buffer.readBlockPos();
+        int baseVersion = buffer.readVarInt() - 1;
+        int version = buffer.readVarInt();
+        byte[] data = new byte[buffer.readableBytes()];
+        buffer.readBytes(data);
+        return new HearthCoverageMessage(blockPos, baseVersion, version, data);
+    }
+
+    public static void handle(HearthCoverageMessage message, Supplier<NetworkEvent.Context> contextSupplier)
+    {
+        NetworkEvent.Context context = contextSupplier.get();
+        if (context.getDirection().getReceptionSide().isClient())
+        {
+            context.enqueueWork(() ->
+            {
+                BlockEntity te = Minecraft.getInstance().level.getBlockEntity(message.blockPos);
+                if (te instanceof HearthBlockEntity hearth)
+                {
+                    HearthCoverage coverage = hearth.getCoverage();
+                    if (message.baseVersion != FULL && message.baseVersion != coverage.getVersion())
+                    {   ColdSweatPacketHandler.INSTANCE.sendToServer(new RequestHearthCoverageMessage(message.blockPos));
+                        return;
+                    }
+                    try
+                    {
+                        if (message.baseVersion == FULL)
+                        {   coverage.clear();
+                        }
+                        coverage.readChanges(new FriendlyByteBuf(Unpooled.wrappedBuffer(message.data)));
+                        coverage.setVersion(message.version);
+                    }
+                    catch (Exception e)
+                    {   ColdSweat.LOGGER.warn("Failed to read Hearth coverage, requesting a full sync", e);
+                        ColdSweatPacketHandler.INSTANCE.sendToServer(new RequestHearthCoverageMessage(message.blockPos));
+                    }
+                }
+            });
+        }
+        context.setPacketHandled(true);
+    }
+}
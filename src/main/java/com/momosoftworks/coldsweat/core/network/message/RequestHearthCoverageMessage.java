@@ -0,0 +1,51 @@
+package com.momosoftworks.coldsweat.core.network.message;
+
+import com.momosoftworks.coldsweat.common.blockentity.HearthBlockEntity;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraftforge.network.NetworkEvent;
+
+import java.util.function.Supplier;
+
+/**
+ * Sent by the client when its copy of a Hearth's coverage is out of sync, to ask the server to send all of it again
+ */
+public class RequestHearthCoverageMessage
+{
+    BlockPos blockPos;
+
+    public RequestHearthCoverageMessage(BlockPos blockPos)
+    {
+        this.blockPos = blockPos;
+    }
+
+    public static void encode(RequestHearthCoverageMessage message, FriendlyByteBuf buffer)
+    {
+        buffer.writeBlockPos(message.blockPos);
+    }
+
+    public static RequestHearthCoverageMessage decode(FriendlyByteBuf buffer)
+    {
+        return new RequestHearthCoverageMessage(buffer.readBlockPos());
+    }
+
+    public static void handle(RequestHearthCoverageMessage message, Supplier<NetworkEvent.Context> contextSupplier)
+    {
+        NetworkEvent.Context context = contextSupplier.get();
+        context.enqueueWork(() ->
+        {
+            ServerPlayer player = context.getSender();
+            // Only answer for Hearths the player's client actually has loaded
+            if (context.getDirection().getReceptionSide().isServer() && player != null
+            && player.level() instanceof ServerLevel level && level.isLoaded(message.blockPos)
+            && level.getChunkSource().chunkMap.getPlayers(new ChunkPos(message.blockPos), false).contains(player)
+            && level.getBlockEntity(message.blockPos) instanceof HearthBlockEntity hearth)
+            {   hearth.sendCoverageTo(player);
+            }
+        });
+        context.setPacketHandled(true);
+    }
+}
@@ -0,0 +1,49 @@
+package com.momosoftworks.coldsweat.core.network.message;
+
+import com.momosoftworks.coldsweat.api.util.Temperature;
+import com.momosoftworks.coldsweat.common.capability.EntityTempManager;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraftforge.network.NetworkEvent;
+
+import java.util.function.Supplier;
+
+/**
+ * Sent by the client when its TempModifiers are out of sync, to ask the server to send all of them again
+ */
+public class RequestModifierSyncMessage
+{
+    int entityId;
+
+    public RequestModifierSyncMessage(int entityId)
+    {
+        this.entityId = entityId;
+    }
+
+    public static void encode(RequestModifierSyncMessage message, FriendlyByteBuf buffer)
+    {
+        buffer.writeVarInt(message.entityId);
+    }
+
+    public static RequestModifierSyncMessage decode(FriendlyByteBuf buffer)
+    {
+        return new RequestModifierSyncMessage(buffer.readVarInt());
+    }
+
+    public static void handle(RequestModifierSyncMessage message, Supplier<NetworkEvent.Context> contextSupplier)
+    {
+        NetworkEvent.Context context = contextSupplier.get();
+        context.enqueueWork(() ->
+        {
+            ServerPlayer player = context.getSender();
+            // Other entities are always synced in full, so only the player's own modifiers can fall out of sync
+            if (context.getDirection().getReceptionSide().isServer() && player != null && player.getId() == message.entityId)
+            {
+                EntityTempManager.getTemperatureCap(player).ifPresent(cap ->
+                {   Temperature.updateModifiers(player, cap, true);
+                });
+            }
+        });
+        context.setPacketHandled(true);
+    }
+}
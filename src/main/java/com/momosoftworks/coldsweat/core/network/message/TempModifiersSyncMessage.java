@@ -1,41 +1,100 @@
 package com.momosoftworks.coldsweat.core.network.message;
 
+import com.momosoftworks.coldsweat.ColdSweat;
+import com.momosoftworks.coldsweat.api.util.Temperature;
 import com.momosoftworks.coldsweat.common.capability.EntityTempManager;
+import com.momosoftworks.coldsweat.common.capability.ITemperatureCap;
+import com.momosoftworks.coldsweat.common.capability.TempModifierList;
+import com.momosoftworks.coldsweat.core.network.ColdSweatPacketHandler;
+import io.netty.buffer.Unpooled;
 import net.minecraft.client.Minecraft;
-import net.minecraft.nbt.CompoundTag;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.entity.player.Player;
 import net.minecraftforge.network.NetworkEvent;
 
+import javax.annotation.Nullable;
 import java.util.function.Supplier;
 
+/**
+ * Syncs the TempModifiers that changed since the last sync. See {@link TempModifierList#writeSync}.<br>
+ * If the client ends up out of sync, it asks for a full sync with {@link RequestModifierSyncMessage}.
+ */
 public class TempModifiersSyncMessage
 {
     int entityId;
-    CompoundTag modifiers;
+    byte[] data;
 
-    public TempModifiersSyncMessage(LivingEntity entity, CompoundTag modifiers)
+    TempModifiersSyncMessage(int entityId, byte[] data)
     {
-        this.entityId = entity.getId();
-        this.modifiers = modifiers;
+        this.entityId = entityId;
+        this.data = data;
     }
 
-    TempModifiersSyncMessage(int entityId, CompoundTag modifiers)
+    /**
+     * Writes the entity's changed modifiers and marks them as synced.<br>
+     * Entities other than players are synced to everyone tracking them, who may not have received earlier changes,
+     * so all of their modifiers are sent when any of them change.
+     * @param force Whether to send all modifiers, even if none have changed
+     * @return The message, or null if no modifiers have changed
+     */
+    @Nullable
+    public static TempModifiersSyncMessage create(LivingEntity entity, ITemperatureCap cap, boolean force)
     {
-        this.entityId = entityId;
-        this.modifiers = modifiers;
+        FriendlyByteBuf buffer = new FriendlyByteBuf(Unpooled.buffer());
+        Temperature.Type[] types = EntityTempManager.VALID_MODIFIER_TYPES;
+        boolean full = force || !(entity instanceof Player);
+        int[][] changes = new int[types.length][];
+        int typeMask = 0;
+        for (int i = 0; i < types.length; i++)
+        {
+            if (cap.getModifiers(types[i]) instanceof TempModifierList list
+            && (changes[i] = list.getSyncChanges(false)) != null)
+            {   typeMask |= 1 << i;
+            }
+        }
+        if (typeMask == 0 && !force) return null;
+        if (full)
+        {
+            for (int i = 0; i < types.length; i++)
+            {
+                if (cap.getModifiers(types[i]) instanceof TempModifierList list)
+                {   changes[i] = list.getSyncChanges(true);
+                    typeMask |= 1 << i;
+                }
+            }
+        }
+
+        buffer.writeVarInt(typeMask);
+        int checksum = 1;
+        for (int i = 0; i < types.length; i++)
+        {
+            if (!(cap.getModifiers(types[i]) instanceof TempModifierList list)) continue;
+            if (changes[i] != null)
+            {   list.writeSync(buffer, changes[i], full);
+            }
+            checksum = 31 * checksum + list.getSyncChecksum();
+        }
+        buffer.writeInt(checksum);
+
+        byte[] data = new byte[buffer.readableBytes()];
+        buffer.readBytes(data);
+        return new TempModifiersSyncMessage(entity.getId(), data);
     }
 
     public static void encode(TempModifiersSyncMessage message, FriendlyByteBuf buffer)
     {
-        buffer.writeInt(message.entityId);
-        buffer.writeNbt(message.modifiers);
+        buffer.writeVarInt(message.entityId);
+        buffer.writeBytes(message.data);
     }
 
     public static TempModifiersSyncMessage decode(FriendlyByteBuf buffer)
     {
-        return new TempModifiersSyncMessage(buffer.readInt(), buffer.readNbt());
+        int entityId = buffer.readVarInt();
+        byte[] data = new byte[buffer.readableBytes()];
+        buffer.readBytes(data);
+        return new TempModifiersSyncMessage(entityId, data);
     }
 
     public static void handle(TempModifiersSyncMessage message, Supplier<NetworkEvent.Context> contextSupplier)
@@ -50,11 +109,40 @@ public class TempModifiersSyncMessage
             if (entity instanceof LivingEntity living)
             {
                 EntityTempManager.getTemperatureCap(living).ifPresent(cap ->
-                {   cap.deserializeModifiers(message.modifiers);
+                {
+                    if (!readModifiers(cap, new FriendlyByteBuf(Unpooled.wrappedBuffer(message.data))))
+                    {   ColdSweatPacketHandler.INSTANCE.sendToServer(new RequestModifierSyncMessage(message.entityId));
+                    }
                 });
             }
         });
 
         context.setPacketHandled(true);
     }
-}
\ No newline at end of file
+
+    /**
+     * @return False if the client's modifiers no longer match the server's
+     */
+    private static boolean readModifiers(ITemperatureCap cap, FriendlyByteBuf buffer)
+    {
+        try
+        {
+            Temperature.Type[] types = EntityTempManager.VALID_MODIFIER_TYPES;
+            int typeMask = buffer.readVarInt();
+            int checksum = 1;
+            for (int i = 0; i < types.length; i++)
+            {
+                if (!(cap.getModifiers(types[i]) instanceof TempModifierList list)) continue;
+                if ((typeMask & 1 << i) != 0)
+                {   list.readSync(buffer);
+                }
+                checksum = 31 * checksum + list.getSyncChecksum();
+            }
+            return buffer.readInt() == checksum;
+        }
+        catch (Exception e)
+        {   ColdSweat.LOGGER.warn("Failed to read TempModifiers, requesting a full sync", e);
+            return false;
+        }
+    }
+}
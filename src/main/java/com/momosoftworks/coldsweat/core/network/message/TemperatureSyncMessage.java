@@ -3,41 +3,89 @@ package com.momosoftworks.coldsweat.core.network.message;
 import com.momosoftworks.coldsweat.api.util.Temperature;
 import com.momosoftworks.coldsweat.client.gui.Overlays;
 import com.momosoftworks.coldsweat.common.capability.EntityTempManager;
+import com.momosoftworks.coldsweat.common.capability.ITemperatureCap;
 import com.momosoftworks.coldsweat.common.capability.PlayerTempCap;
+import com.momosoftworks.coldsweat.util.math.CSMath;
 import net.minecraft.client.Minecraft;
-import net.minecraft.nbt.CompoundTag;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraftforge.network.NetworkEvent;
 
+import java.util.Arrays;
 import java.util.function.Supplier;
 
+/**
+ * Syncs an entity's temperatures to the client.<br>
+ * Only the temperature types in {@code types} are sent (one bit per {@link Temperature.Type#ordinal()}), each as a short.
+ */
 public class TemperatureSyncMessage
 {
+    public static final int ALL_TYPES = Arrays.stream(EntityTempManager.VALID_TEMPERATURE_TYPES).mapToInt(type -> 1 << type.ordinal()).reduce(0, (a, b) -> a | b);
+
     int entityId;
-    CompoundTag temps;
+    int types;
+    short[] temps;
     boolean instant;
 
-    public TemperatureSyncMessage(LivingEntity entity, CompoundTag temps, boolean instant)
-    {   this.entityId = entity.getId();
-        this.temps = temps;
+    public TemperatureSyncMessage(LivingEntity entity, ITemperatureCap cap, int types, boolean instant)
+    {
+        types &= ALL_TYPES;
+        this.entityId = entity.getId();
+        this.types = types;
         this.instant = instant;
+        this.temps = new short[Integer.bitCount(types)];
+        int i = 0;
+        for (Temperature.Type type : EntityTempManager.VALID_TEMPERATURE_TYPES)
+        {
+            if ((types & 1 << type.ordinal()) != 0)
+            {   temps[i++] = quantize(type, cap.getTemp(type));
+            }
+        }
     }
 
-    TemperatureSyncMessage(int entityId, CompoundTag temps, boolean instant)
+    TemperatureSyncMessage(int entityId, int types, short[] temps, boolean instant)
     {   this.entityId = entityId;
+        this.types = types;
         this.temps = temps;
         this.instant = instant;
     }
 
+    /**
+     * @return The value of a temperature type, rounded to a short. <br>
+     * Body temperatures are stored in hundredths, and world temperatures (in MC units) in five-hundredths.
+     */
+    public static short quantize(Temperature.Type type, double value)
+    {   return (short) CSMath.clamp(Math.round(value * getScale(type)), Short.MIN_VALUE, Short.MAX_VALUE);
+    }
+
+    public static double dequantize(Temperature.Type type, short value)
+    {   return value / getScale(type);
+    }
+
+    private static double getScale(Temperature.Type type)
+    {   return type == Temperature.Type.CORE || type == Temperature.Type.BASE ? 100 : 500;
+    }
+
     public static void encode(TemperatureSyncMessage message, FriendlyByteBuf buffer)
-    {   buffer.writeInt(message.entityId);
-        buffer.writeNbt(message.temps);
+    {
+        buffer.writeVarInt(message.entityId);
+        buffer.writeByte(message.types);
         buffer.writeBoolean(message.instant);
+        for (short temp : message.temps)
+        {   buffer.writeShort(temp);
+        }
     }
 
     public static TemperatureSyncMessage decode(FriendlyByteBuf buffer)
-    {   return new TemperatureSyncMessage(buffer.readInt(), buffer.readNbt(), buffer.readBoolean());
+    {
+        int entityId = buffer.readVarInt();
+        int types = buffer.readUnsignedByte();
+        boolean instant = buffer.readBoolean();
+        short[] temps = new short[Integer.bitCount(types)];
+        for (int i = 0; i < temps.length; i++)
+        {   temps[i] = buffer.readShort();
+        }
+        return new TemperatureSyncMessage(entityId, types, temps, instant);
     }
 
     public static void handle(TemperatureSyncMessage message, Supplier<NetworkEvent.Context> contextSupplier)
@@ -54,7 +102,13 @@ public class TemperatureSyncMessage
                 {
                     EntityTempManager.getTemperatureCap(entity).ifPresent(cap ->
                     {
-                        cap.deserializeTemps(message.temps);
+                        int i = 0;
+                        for (Temperature.Type type : EntityTempManager.VALID_TEMPERATURE_TYPES)
+                        {
+                            if ((message.types & 1 << type.ordinal()) != 0)
+                            {   cap.setTemp(type, dequantize(type, message.temps[i++]));
+                            }
+                        }
                         if (message.instant && cap instanceof PlayerTempCap)
                         {   Overlays.setBodyTempInstant(cap.getTemp(Temperature.Type.BODY));
                         }
@@ -1,11 +1,10 @@
 package com.momosoftworks.coldsweat.mixin;
 
 import com.momosoftworks.coldsweat.ColdSweat;
-import com.momosoftworks.coldsweat.api.event.common.BlockStateChangedEvent;
+import com.momosoftworks.coldsweat.util.world.BlockChangeJournal;
 import net.minecraft.core.BlockPos;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.level.block.state.BlockState;
-import net.minecraftforge.common.MinecraftForge;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
@@ -13,9 +12,7 @@ import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
 /**
  * Called when a block state is changed.<br>
- * This event is not {@link net.minecraftforge.eventbus.api.Cancelable}.<br>
- * <br>
- * Updates must be delayed by 1 tick to prevent chunk deadlocking.
+ * Changes are recorded in the level's {@link BlockChangeJournal} and posted at the end of the tick, to prevent chunk deadlocking.
  */
 @Mixin(ServerLevel.class)
 public class MixinBlockUpdate
@@ -26,7 +23,7 @@ public class MixinBlockUpdate
     private void onBlockUpdate(BlockPos pos, BlockState oldState, BlockState newState, CallbackInfo ci)
     {
         if (!oldState.equals(newState))
-        {   level.getServer().execute(() -> MinecraftForge.EVENT_BUS.post(new BlockStateChangedEvent(pos, level, oldState, newState)));
+        {   BlockChangeJournal.get(level).record(pos, oldState, newState);
         }
     }
 }
\ No newline at end of file
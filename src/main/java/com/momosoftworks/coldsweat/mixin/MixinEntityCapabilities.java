@@ -0,0 +1,38 @@
+package com.momosoftworks.coldsweat.mixin;
+
+import com.momosoftworks.coldsweat.common.capability.ICachedCapabilities;
+import com.momosoftworks.coldsweat.common.capability.IShearableCap;
+import com.momosoftworks.coldsweat.common.capability.ITemperatureCap;
+import net.minecraft.world.entity.Entity;
+import net.minecraftforge.common.util.LazyOptional;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+
+@Mixin(Entity.class)
+public class MixinEntityCapabilities implements ICachedCapabilities
+{
+    @Unique
+    private LazyOptional<ITemperatureCap> temperatureCap;
+    @Unique
+    private LazyOptional<IShearableCap> furCap;
+
+    @Override
+    public LazyOptional<ITemperatureCap> getCachedTemperatureCap()
+    {   return temperatureCap;
+    }
+
+    @Override
+    public void setCachedTemperatureCap(LazyOptional<ITemperatureCap> cap)
+    {   this.temperatureCap = cap;
+    }
+
+    @Override
+    public LazyOptional<IShearableCap> getCachedFurCap()
+    {   return furCap;
+    }
+
+    @Override
+    public void setCachedFurCap(LazyOptional<IShearableCap> cap)
+    {   this.furCap = cap;
+    }
+}
@@ -0,0 +1,31 @@
+package com.momosoftworks.coldsweat.mixin;
+
+import com.momosoftworks.coldsweat.ColdSweat;
+import com.momosoftworks.coldsweat.util.world.HeatSourceIndex;
+import com.momosoftworks.coldsweat.util.world.SkyOcclusionCache;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.BlockState;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * Clientside counterpart to {@link MixinBlockUpdate}.<br>
+ * {@link net.minecraft.server.level.ServerLevel} overrides this method, so this only runs for client levels.
+ */
+@Mixin(Level.class)
+public class MixinLevelBlockUpdate
+{
+    Level level = (Level) (Object) this;
+
+    @Inject(method = "onBlockStateChange", at = @At("HEAD"), remap = ColdSweat.REMAP_MIXINS)
+    private void onBlockUpdate(BlockPos pos, BlockState oldState, BlockState newState, CallbackInfo ci)
+    {
+        if (!oldState.equals(newState))
+        {   SkyOcclusionCache.get(level).invalidate(pos);
+            HeatSourceIndex.get(level).onBlockChanged(pos.asLong(), newState);
+        }
+    }
+}
@@ -12,7 +12,6 @@ import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.level.Level;
 
-import java.util.HashMap;
 
 /**
  * This class is an abstraction layer for some methods in client-oriented classes
@@ -28,12 +27,8 @@ public class ClientOnlyHelper
     {   return Minecraft.getInstance().level;
     }
 
-    public static void addHearthPosition(BlockPos pos)
-    {   HearthDebugRenderer.HEARTH_LOCATIONS.put(pos, new HashMap<>());
-    }
-
     public static void removeHearthPosition(BlockPos pos)
-    {   HearthDebugRenderer.HEARTH_LOCATIONS.remove(pos);
+    {   HearthDebugRenderer.removeHearth(pos);
     }
 
     public static void openConfigScreen()
@@ -0,0 +1,34 @@
+package com.momosoftworks.coldsweat.util;
+
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.eventbus.ListenerList;
+
+import java.lang.reflect.Field;
+
+/**
+ * Used to skip creating and posting events that nothing is listening for
+ */
+public class EventHelper
+{
+    // Used to look up the listeners registered to the Forge event bus. -1 if it can't be found
+    private static int EVENT_BUS_ID = -1;
+    static
+    {
+        try
+        {   Field busID = MinecraftForge.EVENT_BUS.getClass().getDeclaredField("busID");
+            busID.setAccessible(true);
+            EVENT_BUS_ID = busID.getInt(MinecraftForge.EVENT_BUS);
+        }
+        catch (Exception ignored) {}
+    }
+
+    private EventHelper() {}
+
+    /**
+     * @param listeners The listener list of the event, from {@link net.minecraftforge.eventbus.api.EventListenerHelper#getListenerList}
+     * @return True if any listeners are registered to the Forge event bus for the given event, or if this can't be determined
+     */
+    public static boolean hasListeners(ListenerList listeners)
+    {   return EVENT_BUS_ID < 0 || listeners.getListeners(EVENT_BUS_ID).length > 0;
+    }
+}
@@ -0,0 +1,72 @@
+package com.momosoftworks.coldsweat.util.math;
+
+/**
+ * Walks the block grid cells that a line passes through, in order, using a voxel traversal (Amanatides &amp; Woo).<br>
+ * This doesn't read the level, so it can be used off-thread and tested on its own.
+ */
+public class VoxelRay
+{
+    private VoxelRay() {}
+
+    /**
+     * Visits a cell along a ray walked by {@link #forCellsInRay(double, double, double, double, double, double, CellVisitor)}
+     */
+    @FunctionalInterface
+    public interface CellVisitor
+    {
+        /**
+         * @return False to stop walking the ray
+         */
+        boolean visit(int x, int y, int z);
+    }
+
+    /**
+     * Visits every cell that the line between the two points passes through, in order.
+     * The cells containing the start and end points are not visited.<br>
+     * Each visited cell shares a face with the one before it. If the line passes exactly through an edge or corner,
+     * the cells are entered on the X axis first, then Y, then Z.
+     * @return The number of cells visited
+     */
+    public static int forCellsInRay(double fromX, double fromY, double fromZ, double toX, double toY, double toZ, CellVisitor visitor)
+    {
+        int x = (int) Math.floor(fromX), y = (int) Math.floor(fromY), z = (int) Math.floor(fromZ);
+        int endX = (int) Math.floor(toX), endY = (int) Math.floor(toY), endZ = (int) Math.floor(toZ);
+        // The number of cell borders the ray crosses
+        int steps = Math.abs(endX - x) + Math.abs(endY - y) + Math.abs(endZ - z);
+        if (steps <= 1) return 0;
+
+        double dx = toX - fromX, dy = toY - fromY, dz = toZ - fromZ;
+        int stepX = Integer.signum(endX - x), stepY = Integer.signum(endY - y), stepZ = Integer.signum(endZ - z);
+        // How far along the ray (0 - 1) it takes to cross one cell on each axis
+        double deltaX = stepX != 0 ? Math.abs(1 / dx) : Double.MAX_VALUE;
+        double deltaY = stepY != 0 ? Math.abs(1 / dy) : Double.MAX_VALUE;
+        double deltaZ = stepZ != 0 ? Math.abs(1 / dz) : Double.MAX_VALUE;
+        // How far along the ray the next cell border is on each axis
+        double nextX = stepX > 0 ? (x + 1 - fromX) * deltaX : stepX < 0 ? (fromX - x) * deltaX : Double.MAX_VALUE;
+        double nextY = stepY > 0 ? (y + 1 - fromY) * deltaY : stepY < 0 ? (fromY - y) * deltaY : Double.MAX_VALUE;
+        double nextZ = stepZ > 0 ? (z + 1 - fromZ) * deltaZ : stepZ < 0 ? (fromZ - z) * deltaZ : Double.MAX_VALUE;
+
+        // The last step enters the end cell, which isn't visited
+        int visited = 0;
+        for (int i = 0; i < steps - 1; i++)
+        {
+            // Never step past the end cell on an axis, even if rounding says the border is closer
+            boolean canX = x != endX, canY = y != endY, canZ = z != endZ;
+            if (canX && (!canY || nextX <= nextY) && (!canZ || nextX <= nextZ))
+            {   x += stepX;
+                nextX += deltaX;
+            }
+            else if (canY && (!canZ || nextY <= nextZ))
+            {   y += stepY;
+                nextY += deltaY;
+            }
+            else
+            {   z += stepZ;
+                nextZ += deltaZ;
+            }
+            visited++;
+            if (!visitor.visit(x, y, z)) break;
+        }
+        return visited;
+    }
+}
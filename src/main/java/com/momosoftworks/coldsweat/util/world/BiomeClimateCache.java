@@ -0,0 +1,160 @@
+package com.momosoftworks.coldsweat.util.world;
+
+import com.momosoftworks.coldsweat.api.util.Temperature;
+import com.momosoftworks.coldsweat.config.ConfigSettings;
+import com.momosoftworks.coldsweat.util.math.CSMath;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Holder;
+import net.minecraft.core.QuartPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.LevelAccessor;
+import net.minecraft.world.level.biome.Biome;
+import net.minecraftforge.common.Tags;
+import net.minecraftforge.event.level.ChunkEvent;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import oshi.util.tuples.Triplet;
+
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-level cache of biome temperatures, after config overrides and offsets are applied.<br>
+ * Biomes are looked up per quart (4x4x4 block area), and the results are stored per loaded chunk. The cache is cleared
+ * when the biome temperature configs are reloaded or synced.
+ */
+@Mod.EventBusSubscriber
+public class BiomeClimateCache
+{
+    private static final Map<LevelAccessor, BiomeClimateCache> CACHES = new ConcurrentHashMap<>();
+    // Stored for biomes that aren't registered, which are ignored by temperature calculations
+    private static final BiomeClimate UNKNOWN = new BiomeClimate(null, 0, 0, false);
+
+    private final Level level;
+    private final int minQuartY;
+    private final int quartHeight;
+    private final Long2ObjectOpenHashMap<BiomeClimate[]> chunks = new Long2ObjectOpenHashMap<>();
+    private final Map<Biome, BiomeClimate> biomes = new HashMap<>();
+    private Map<ResourceLocation, Triplet<Double, Double, Temperature.Units>> lastBiomeTemps = null;
+    private Map<ResourceLocation, Triplet<Double, Double, Temperature.Units>> lastBiomeOffsets = null;
+
+    private BiomeClimateCache(Level level)
+    {   this.level = level;
+        this.minQuartY = QuartPos.fromBlock(level.getMinBuildHeight());
+        this.quartHeight = QuartPos.fromBlock(level.getHeight());
+    }
+
+    public static BiomeClimateCache get(Level level)
+    {   return CACHES.computeIfAbsent(level, l -> new BiomeClimateCache(level));
+    }
+
+    /**
+     * @return The climate of the biome at the given position, or null if the biome isn't registered
+     */
+    @Nullable
+    public BiomeClimate getClimate(BlockPos pos)
+    {
+        // The maps are replaced whenever the config is loaded or synced
+        Map<ResourceLocation, Triplet<Double, Double, Temperature.Units>> biomeTemps = ConfigSettings.BIOME_TEMPS.get();
+        Map<ResourceLocation, Triplet<Double, Double, Temperature.Units>> biomeOffsets = ConfigSettings.BIOME_OFFSETS.get();
+        if (biomeTemps != lastBiomeTemps || biomeOffsets != lastBiomeOffsets)
+        {   lastBiomeTemps = biomeTemps;
+            lastBiomeOffsets = biomeOffsets;
+            chunks.clear();
+            biomes.clear();
+        }
+
+        int quartX = QuartPos.fromBlock(pos.getX());
+        int quartY = CSMath.clamp(QuartPos.fromBlock(pos.getY()), minQuartY, minQuartY + quartHeight - 1);
+        int quartZ = QuartPos.fromBlock(pos.getZ());
+
+        // Don't cache biomes in unloaded chunks, since they would never be evicted
+        if (WorldHelper.getChunk(level, pos) == null)
+        {   return this.unwrap(this.getBiomeClimate(level.getNoiseBiome(quartX, quartY, quartZ)));
+        }
+
+        long chunkKey = ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4);
+        BiomeClimate[] climates = chunks.get(chunkKey);
+        if (climates == null)
+        {   climates = new BiomeClimate[quartHeight << 4];
+            chunks.put(chunkKey, climates);
+        }
+        int index = (quartY - minQuartY) << 4 | (quartZ & 3) << 2 | (quartX & 3);
+        BiomeClimate climate = climates[index];
+        if (climate == null)
+        {   climates[index] = climate = this.getBiomeClimate(level.getNoiseBiome(quartX, quartY, quartZ));
+        }
+        return this.unwrap(climate);
+    }
+
+    private BiomeClimate getBiomeClimate(Holder<Biome> holder)
+    {
+        Optional<ResourceKey<Biome>> key = holder.unwrapKey();
+        if (key.isEmpty()) return UNKNOWN;
+        return biomes.computeIfAbsent(holder.value(), biome -> BiomeClimate.of(holder, key.get().location(), lastBiomeTemps, lastBiomeOffsets));
+    }
+
+    @Nullable
+    private BiomeClimate unwrap(BiomeClimate climate)
+    {   return climate == UNKNOWN ? null : climate;
+    }
+
+    @SubscribeEvent
+    public static void onChunkUnload(ChunkEvent.Unload event)
+    {
+        BiomeClimateCache cache = CACHES.get(event.getLevel());
+        if (cache != null)
+        {   cache.chunks.remove(event.getChunk().getPos().toLong());
+        }
+    }
+
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event)
+    {   CACHES.remove(event.getLevel());
+    }
+
+    /**
+     * @param biome The biome holder
+     * @param min The biome's temperature at midnight, in MC units
+     * @param max The biome's temperature at noon, in MC units
+     * @param underground True if the biome is a cave biome ({@link Tags.Biomes#IS_UNDERGROUND})
+     */
+    public record BiomeClimate(Holder<Biome> biome, double min, double max, boolean underground)
+    {
+        private static BiomeClimate of(Holder<Biome> holder, ResourceLocation biomeID,
+                                       Map<ResourceLocation, Triplet<Double, Double, Temperature.Units>> biomeTemps,
+                                       Map<ResourceLocation, Triplet<Double, Double, Temperature.Units>> biomeOffsets)
+        {
+            Biome biome = holder.value();
+            double biomeVariance = 1 / Math.max(1, 2 + biome.getModifiedClimateSettings().downfall() * 2);
+            double baseTemp = biome.getBaseTemperature();
+
+            // Get the biome's temperature, either overridden by config or calculated
+            double min = baseTemp - biomeVariance;
+            double max = baseTemp + biomeVariance;
+            Triplet<Double, Double, Temperature.Units> cTemp = biomeTemps.get(biomeID);
+            if (cTemp != null)
+            {   min = cTemp.getA();
+                max = cTemp.getB();
+            }
+            Triplet<Double, Double, Temperature.Units> cOffset = biomeOffsets.get(biomeID);
+            if (cOffset != null)
+            {   min += cOffset.getA();
+                max += cOffset.getB();
+            }
+            return new BiomeClimate(holder, min, max, holder.is(Tags.Biomes.IS_UNDERGROUND));
+        }
+
+        public double average()
+        {   return (min + max) / 2;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.momosoftworks.coldsweat.util.world;
+
+import com.momosoftworks.coldsweat.api.event.common.BlockChangeBatchEvent;
+import com.momosoftworks.coldsweat.api.event.common.BlockStateChangedEvent;
+import com.momosoftworks.coldsweat.util.EventHelper;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.LevelAccessor;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.eventbus.ListenerList;
+import net.minecraftforge.eventbus.api.EventListenerHelper;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-level record of the block changes made during the current tick.<br>
+ * Changes are stored as packed positions and state IDs, and posted at the end of the tick as one
+ * {@link BlockChangeBatchEvent} per level. Posting them later also keeps listeners from loading chunks while
+ * a chunk is being modified.<br>
+ * {@link BlockStateChangedEvent} is still posted for each change, but only if something is listening for it.
+ */
+@Mod.EventBusSubscriber
+public class BlockChangeJournal
+{
+    private static final Map<LevelAccessor, BlockChangeJournal> JOURNALS = new ConcurrentHashMap<>();
+    private static final ListenerList SINGLE_CHANGE_LISTENERS = EventListenerHelper.getListenerList(BlockStateChangedEvent.class);
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final ServerLevel level;
+    private long[] positions = new long[INITIAL_CAPACITY];
+    private int[] oldStates = new int[INITIAL_CAPACITY];
+    private int[] newStates = new int[INITIAL_CAPACITY];
+    private int size = 0;
+
+    private BlockChangeJournal(ServerLevel level)
+    {   this.level = level;
+    }
+
+    public static BlockChangeJournal get(ServerLevel level)
+    {   return JOURNALS.computeIfAbsent(level, l -> new BlockChangeJournal(level));
+    }
+
+    public void record(BlockPos pos, BlockState oldState, BlockState newState)
+    {
+        // Blocks can be changed off-thread (i.e. by world generation)
+        if (!level.getServer().isSameThread())
+        {   long packedPos = pos.asLong();
+            level.getServer().execute(() -> this.record(BlockPos.of(packedPos), oldState, newState));
+            return;
+        }
+        // Done here rather than with the batch, so sky checks later in the tick see the change
+        SkyOcclusionCache.get(level).invalidate(pos);
+        if (size == positions.length)
+        {   positions = Arrays.copyOf(positions, size * 2);
+            oldStates = Arrays.copyOf(oldStates, size * 2);
+            newStates = Arrays.copyOf(newStates, size * 2);
+        }
+        positions[size] = pos.asLong();
+        oldStates[size] = Block.getId(oldState);
+        newStates[size] = Block.getId(newState);
+        size++;
+    }
+
+    private void post()
+    {
+        // Changes made by listeners go into the next tick's batch
+        BlockChangeBatchEvent batch = new BlockChangeBatchEvent(level, positions, oldStates, newStates, size);
+        size = 0;
+        if (positions.length > INITIAL_CAPACITY * 64)
+        {   positions = new long[INITIAL_CAPACITY];
+            oldStates = new int[INITIAL_CAPACITY];
+            newStates = new int[INITIAL_CAPACITY];
+        }
+
+        MinecraftForge.EVENT_BUS.post(batch);
+        if (EventHelper.hasListeners(SINGLE_CHANGE_LISTENERS))
+        {
+            for (int i = 0; i < batch.size(); i++)
+            {   MinecraftForge.EVENT_BUS.post(new BlockStateChangedEvent(batch.getPos(i), level, batch.getOldState(i), batch.getNewState(i)));
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerTick(TickEvent.ServerTickEvent event)
+    {
+        if (event.phase == TickEvent.Phase.END)
+        {
+            for (BlockChangeJournal journal : JOURNALS.values())
+            {
+                if (journal.size > 0)
+                {   journal.post();
+                }
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event)
+    {   JOURNALS.remove(event.getLevel());
+    }
+}
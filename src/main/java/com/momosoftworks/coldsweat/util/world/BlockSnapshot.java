@@ -0,0 +1,93 @@
+package com.momosoftworks.coldsweat.util.world;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.BlockGetter;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.chunk.PalettedContainer;
+import net.minecraft.world.level.material.FluidState;
+
+import javax.annotation.Nullable;
+
+/**
+ * A copy of the block states in an area of a level, which can be read from any thread.<br>
+ * Must be captured on the level's thread. Block entities aren't copied, and unloaded or empty sections read as air.
+ */
+public class BlockSnapshot implements BlockGetter
+{
+    private final Long2ObjectOpenHashMap<PalettedContainer<BlockState>> sections = new Long2ObjectOpenHashMap<>();
+    private final int minBuildHeight;
+    private final int height;
+
+    private BlockSnapshot(Level level)
+    {   this.minBuildHeight = level.getMinBuildHeight();
+        this.height = level.getHeight();
+    }
+
+    /**
+     * Copies every chunk section that overlaps the box between the two corners (inclusive)
+     */
+    public static BlockSnapshot capture(Level level, BlockPos min, BlockPos max)
+    {
+        BlockSnapshot snapshot = new BlockSnapshot(level);
+        LevelTickCache cache = LevelTickCache.get(level);
+        int minY = Math.max(min.getY(), level.getMinBuildHeight());
+        int maxY = Math.min(max.getY(), level.getMaxBuildHeight() - 1);
+
+        for (int sectionX = min.getX() >> 4; sectionX <= max.getX() >> 4; sectionX++)
+        {
+            for (int sectionZ = min.getZ() >> 4; sectionZ <= max.getZ() >> 4; sectionZ++)
+            {
+                for (int sectionY = minY >> 4; sectionY <= maxY >> 4; sectionY++)
+                {
+                    LevelChunkSection section = cache.getSection(sectionX << 4, sectionY << 4, sectionZ << 4);
+                    if (section != null && !section.hasOnlyAir())
+                    {   snapshot.sections.put(SectionPos.asLong(sectionX, sectionY, sectionZ), section.getStates().copy());
+                    }
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * @see WorldHelper.SectionGetter
+     */
+    @Nullable
+    public PalettedContainer<BlockState> getSection(int x, int y, int z)
+    {   return sections.get(SectionPos.asLong(x >> 4, y >> 4, z >> 4));
+    }
+
+    @Override
+    public BlockState getBlockState(BlockPos pos)
+    {
+        PalettedContainer<BlockState> section = this.getSection(pos.getX(), pos.getY(), pos.getZ());
+        return section != null ? section.get(pos.getX() & 15, pos.getY() & 15, pos.getZ() & 15) : Blocks.AIR.defaultBlockState();
+    }
+
+    @Override
+    public FluidState getFluidState(BlockPos pos)
+    {   return this.getBlockState(pos).getFluidState();
+    }
+
+    @Nullable
+    @Override
+    public BlockEntity getBlockEntity(BlockPos pos)
+    {   return null;
+    }
+
+    @Override
+    public int getHeight()
+    {   return height;
+    }
+
+    @Override
+    public int getMinBuildHeight()
+    {   return minBuildHeight;
+    }
+}
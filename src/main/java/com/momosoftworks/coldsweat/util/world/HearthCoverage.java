@@ -0,0 +1,288 @@
+package com.momosoftworks.coldsweat.util.world;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMaps;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.network.FriendlyByteBuf;
+
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.function.LongConsumer;
+
+/**
+ * The blocks covered by a Hearth, stored as one 4096-bit set per chunk section.<br>
+ * The server builds this from the Hearth's paths and sends it to clients, so they never have to spread the Hearth themselves.
+ * Only sections that changed since the last sync are sent, and sections with few covered blocks are sent as a list of indices.
+ */
+public class HearthCoverage
+{
+    private static final byte REMOVED = 0;
+    private static final byte SPARSE = 1;
+    private static final byte DENSE = 2;
+    // Below this many blocks, a list of shorts is smaller than the full 64 longs
+    private static final int SPARSE_LIMIT = 256;
+    private static final long[] EMPTY = new long[0];
+
+    private final Long2ObjectOpenHashMap<long[]> sections = new Long2ObjectOpenHashMap<>();
+    private final Set<BlockPos> view = new View();
+    private int size = 0;
+    private int version = 0;
+    private long[] array = EMPTY;
+    private boolean arrayDirty = false;
+
+    /**
+     * @return The coverage of the positions visited by the given paths
+     */
+    public static HearthCoverage of(SpreadPathStore paths)
+    {
+        HearthCoverage coverage = new HearthCoverage();
+        paths.forEachVisited(pos ->
+        {
+            long[] bits = coverage.sections.computeIfAbsent(SectionPos.blockToSection(pos), k -> new long[64]);
+            int index = index(pos);
+            bits[index >> 6] |= 1L << (index & 63);
+        });
+        coverage.size = paths.visitedCount();
+        coverage.arrayDirty = true;
+        return coverage;
+    }
+
+    public int size()
+    {   return size;
+    }
+
+    /**
+     * @return The number of the last sync this coverage was written to or read from
+     */
+    public int getVersion()
+    {   return version;
+    }
+
+    public void setVersion(int version)
+    {   this.version = version;
+    }
+
+    public boolean contains(long pos)
+    {
+        long[] bits = sections.get(SectionPos.blockToSection(pos));
+        if (bits == null) return false;
+        int index = index(pos);
+        return (bits[index >> 6] & 1L << (index & 63)) != 0;
+    }
+
+    public void forEach(LongConsumer action)
+    {
+        for (Long2ObjectMap.Entry<long[]> entry : Long2ObjectMaps.fastIterable(sections))
+        {
+            long sectionPos = entry.getLongKey();
+            long[] bits = entry.getValue();
+            for (int word = 0; word < 64; word++)
+            {
+                long remaining = bits[word];
+                while (remaining != 0)
+                {   action.accept(toPos(sectionPos, word << 6 | Long.numberOfTrailingZeros(remaining)));
+                    remaining &= remaining - 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The packed positions of the covered blocks, grouped by section. This is shared, and must not be modified.
+     */
+    public long[] getArray()
+    {
+        if (arrayDirty)
+        {   LongArrayList list = new LongArrayList(size);
+            this.forEach(list::add);
+            array = list.toLongArray();
+            arrayDirty = false;
+        }
+        return array;
+    }
+
+    /**
+     * @return A read-only {@link Set} view of the covered positions
+     */
+    public Set<BlockPos> getView()
+    {   return view;
+    }
+
+    public void clear()
+    {   sections.clear();
+        size = 0;
+        arrayDirty = true;
+    }
+
+    /**
+     * Writes the sections that differ from the given coverage, so the receiver can turn {@code base} into this.
+     * @param base The coverage the receiver already has, or null to write every section
+     * @return The number of sections written
+     */
+    public int writeChanges(FriendlyByteBuf buffer, @Nullable HearthCoverage base)
+    {
+        LongArrayList changed = new LongArrayList();
+        for (Long2ObjectMap.Entry<long[]> entry : Long2ObjectMaps.fastIterable(sections))
+        {
+            long[] baseBits = base != null ? base.sections.get(entry.getLongKey()) : null;
+            if (baseBits == null || !Arrays.equals(baseBits, entry.getValue()))
+            {   changed.add(entry.getLongKey());
+            }
+        }
+        if (base != null)
+        {
+            for (long sectionPos : base.sections.keySet())
+            {
+                if (!sections.containsKey(sectionPos))
+                {   changed.add(sectionPos);
+                }
+            }
+        }
+
+        buffer.writeVarInt(changed.size());
+        for (int i = 0; i < changed.size(); i++)
+        {
+            long sectionPos = changed.getLong(i);
+            long[] bits = sections.get(sectionPos);
+            buffer.writeLong(sectionPos);
+            if (bits == null)
+            {   buffer.writeByte(REMOVED);
+                continue;
+            }
+            int count = bitCount(bits);
+            if (count < SPARSE_LIMIT)
+            {
+                buffer.writeByte(SPARSE);
+                buffer.writeVarInt(count);
+                for (int word = 0; word < 64; word++)
+                {
+                    long remaining = bits[word];
+                    while (remaining != 0)
+                    {   buffer.writeShort(word << 6 | Long.numberOfTrailingZeros(remaining));
+                        remaining &= remaining - 1;
+                    }
+                }
+            }
+            else
+            {   buffer.writeByte(DENSE);
+                for (long word : bits)
+                {   buffer.writeLong(word);
+                }
+            }
+        }
+        return changed.size();
+    }
+
+    /**
+     * Applies the sections written by {@link #writeChanges(FriendlyByteBuf, HearthCoverage)}
+     */
+    public void readChanges(FriendlyByteBuf buffer)
+    {
+        int count = buffer.readVarInt();
+        for (int i = 0; i < count; i++)
+        {
+            long sectionPos = buffer.readLong();
+            long[] oldBits = switch (buffer.readByte())
+            {
+                case SPARSE ->
+                {   long[] bits = new long[64];
+                    int blocks = buffer.readVarInt();
+                    for (int b = 0; b < blocks; b++)
+                    {   int index = buffer.readShort() & 4095;
+                        bits[index >> 6] |= 1L << (index & 63);
+                    }
+                    yield sections.put(sectionPos, bits);
+                }
+                case DENSE ->
+                {   long[] bits = new long[64];
+                    for (int w = 0; w < 64; w++)
+                    {   bits[w] = buffer.readLong();
+                    }
+                    yield sections.put(sectionPos, bits);
+                }
+                default -> sections.remove(sectionPos);
+            };
+            size += bitCount(sections.get(sectionPos)) - bitCount(oldBits);
+        }
+        arrayDirty = true;
+    }
+
+    private static int bitCount(@Nullable long[] bits)
+    {
+        if (bits == null) return 0;
+        int count = 0;
+        for (long word : bits)
+        {   count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    private static int index(long pos)
+    {   return (BlockPos.getY(pos) & 15) << 8 | (BlockPos.getZ(pos) & 15) << 4 | (BlockPos.getX(pos) & 15);
+    }
+
+    private static long toPos(long sectionPos, int index)
+    {   return BlockPos.asLong(SectionPos.x(sectionPos) << 4 | index & 15,
+                               SectionPos.y(sectionPos) << 4 | index >> 8,
+                               SectionPos.z(sectionPos) << 4 | index >> 4 & 15);
+    }
+
+    private class View extends AbstractSet<BlockPos>
+    {
+        @Override
+        public boolean contains(Object o)
+        {   return o instanceof BlockPos pos && HearthCoverage.this.contains(pos.asLong());
+        }
+
+        @Override
+        public int size()
+        {   return size;
+        }
+
+        @Override
+        public Iterator<BlockPos> iterator()
+        {
+            ObjectIterator<Long2ObjectMap.Entry<long[]>> sectionIterator = sections.long2ObjectEntrySet().fastIterator();
+            return new Iterator<>()
+            {
+                long sectionPos;
+                long[] bits;
+                int word;
+                long remaining = 0;
+
+                @Override
+                public boolean hasNext()
+                {
+                    while (remaining == 0)
+                    {
+                        if (bits != null && word < 63)
+                        {   remaining = bits[++word];
+                        }
+                        else if (sectionIterator.hasNext())
+                        {   Long2ObjectMap.Entry<long[]> entry = sectionIterator.next();
+                            sectionPos = entry.getLongKey();
+                            bits = entry.getValue();
+                            word = 0;
+                            remaining = bits[0];
+                        }
+                        else return false;
+                    }
+                    return true;
+                }
+
+                @Override
+                public BlockPos next()
+                {
+                    if (!this.hasNext()) throw new NoSuchElementException();
+                    int index = word << 6 | Long.numberOfTrailingZeros(remaining);
+                    remaining &= remaining - 1;
+                    return BlockPos.of(toPos(sectionPos, index));
+                }
+            };
+        }
+    }
+}
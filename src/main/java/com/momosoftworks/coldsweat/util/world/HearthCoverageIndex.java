@@ -0,0 +1,176 @@
+package com.momosoftworks.coldsweat.util.world;
+
+import com.momosoftworks.coldsweat.common.blockentity.HearthBlockEntity;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.level.LevelAccessor;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Per-level index of the blocks covered by each loaded Hearth.<br>
+ * Coverage is stored per chunk section as one 4096-bit set per Hearth, so checking whether a position is covered
+ * is a single map lookup and bit test, regardless of how many Hearths are loaded.
+ */
+@Mod.EventBusSubscriber
+public class HearthCoverageIndex
+{
+    private static final Map<LevelAccessor, HearthCoverageIndex> INDEXES = new ConcurrentHashMap<>();
+
+    // Section position -> coverage of each Hearth that reaches into the section
+    private final Long2ObjectOpenHashMap<List<SectionCoverage>> sections = new Long2ObjectOpenHashMap<>();
+    // Hearth -> sections it covers, used to clear the Hearth's coverage without scanning every section
+    private final Map<HearthBlockEntity, LongOpenHashSet> hearthSections = new LinkedHashMap<>();
+
+    public static HearthCoverageIndex get(LevelAccessor level)
+    {   return INDEXES.computeIfAbsent(level, l -> new HearthCoverageIndex());
+    }
+
+    public void addHearth(HearthBlockEntity hearth)
+    {   hearthSections.putIfAbsent(hearth, new LongOpenHashSet());
+    }
+
+    public void removeHearth(HearthBlockEntity hearth)
+    {   this.clearCoverage(hearth);
+        hearthSections.remove(hearth);
+    }
+
+    /**
+     * @return All Hearths registered in this level
+     */
+    public Collection<HearthBlockEntity> getHearths()
+    {   return hearthSections.keySet();
+    }
+
+    /**
+     * Replaces the coverage of the given Hearth with its currently visited positions.
+     */
+    public void updateCoverage(HearthBlockEntity hearth, SpreadPathStore paths)
+    {
+        this.clearCoverage(hearth);
+        LongOpenHashSet covered = hearthSections.computeIfAbsent(hearth, h -> new LongOpenHashSet());
+
+        SectionCoverage[] lastCoverage = new SectionCoverage[1];
+        paths.forEachVisited(pos ->
+        {
+            long sectionPos = SectionPos.blockToSection(pos);
+            SectionCoverage coverage = lastCoverage[0];
+            if (coverage == null || coverage.sectionPos != sectionPos)
+            {
+                List<SectionCoverage> sectionList = sections.computeIfAbsent(sectionPos, k -> new ArrayList<>(1));
+                coverage = null;
+                for (int i = 0; i < sectionList.size(); i++)
+                {   if (sectionList.get(i).hearth == hearth)
+                    {   coverage = sectionList.get(i);
+                        break;
+                    }
+                }
+                if (coverage == null)
+                {   coverage = new SectionCoverage(hearth, sectionPos);
+                    sectionList.add(coverage);
+                    covered.add(sectionPos);
+                }
+                lastCoverage[0] = coverage;
+            }
+            coverage.set(pos);
+        });
+    }
+
+    private void clearCoverage(HearthBlockEntity hearth)
+    {
+        LongOpenHashSet covered = hearthSections.get(hearth);
+        if (covered == null) return;
+
+        LongIterator iterator = covered.iterator();
+        while (iterator.hasNext())
+        {
+            long sectionPos = iterator.nextLong();
+            List<SectionCoverage> sectionList = sections.get(sectionPos);
+            if (sectionList == null) continue;
+            sectionList.removeIf(coverage -> coverage.hearth == hearth);
+            if (sectionList.isEmpty())
+            {   sections.remove(sectionPos);
+            }
+        }
+        covered.clear();
+    }
+
+    /**
+     * Runs the given action for every Hearth that covers the given position.
+     */
+    public void forEachHearthAt(BlockPos pos, Consumer<HearthBlockEntity> action)
+    {
+        long packedPos = pos.asLong();
+        List<SectionCoverage> sectionList = sections.get(SectionPos.blockToSection(packedPos));
+        if (sectionList == null) return;
+
+        for (int i = 0; i < sectionList.size(); i++)
+        {
+            SectionCoverage coverage = sectionList.get(i);
+            if (coverage.get(packedPos))
+            {   action.accept(coverage.hearth);
+            }
+        }
+    }
+
+    /**
+     * Insulate players standing in a Hearth's area
+     */
+    @SubscribeEvent
+    public static void onLevelTick(TickEvent.LevelTickEvent event)
+    {
+        if (event.phase == TickEvent.Phase.END && event.level instanceof ServerLevel level && level.getGameTime() % 20 == 0)
+        {
+            HearthCoverageIndex index = INDEXES.get(level);
+            if (index == null || index.sections.isEmpty()) return;
+
+            List<? extends Player> players = level.players();
+            for (int i = 0; i < players.size(); i++)
+            {   Player player = players.get(i);
+                index.forEachHearthAt(player.blockPosition(), hearth -> hearth.tryInsulatePlayer(player));
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event)
+    {   INDEXES.remove(event.getLevel());
+    }
+
+    private static class SectionCoverage
+    {
+        final HearthBlockEntity hearth;
+        final long sectionPos;
+        final long[] bits = new long[64];
+
+        SectionCoverage(HearthBlockEntity hearth, long sectionPos)
+        {   this.hearth = hearth;
+            this.sectionPos = sectionPos;
+        }
+
+        static int index(long pos)
+        {   return (BlockPos.getY(pos) & 15) << 8 | (BlockPos.getZ(pos) & 15) << 4 | (BlockPos.getX(pos) & 15);
+        }
+
+        void set(long pos)
+        {   int index = index(pos);
+            bits[index >> 6] |= 1L << (index & 63);
+        }
+
+        boolean get(long pos)
+        {   int index = index(pos);
+            return (bits[index >> 6] & (1L << (index & 63))) != 0;
+        }
+    }
+}
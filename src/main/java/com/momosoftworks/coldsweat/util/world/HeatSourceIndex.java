@@ -0,0 +1,224 @@
+package com.momosoftworks.coldsweat.util.world;
+
+import com.momosoftworks.coldsweat.api.event.common.BlockChangeBatchEvent;
+import com.momosoftworks.coldsweat.api.registry.BlockTempRegistry;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongComparator;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.LevelAccessor;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraftforge.event.level.ChunkEvent;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-level index of blocks that have a {@link com.momosoftworks.coldsweat.api.temperature.block_temp.BlockTemp} registered to them.<br>
+ * Positions are stored per chunk section. Sections are scanned when their chunk loads (skipping sections whose palette
+ * can't contain a heat source), or lazily when first queried, and are kept up to date as blocks change.
+ */
+@Mod.EventBusSubscriber
+public class HeatSourceIndex
+{
+    private static final Map<LevelAccessor, HeatSourceIndex> INDEXES = new ConcurrentHashMap<>();
+    // Shared by all scanned sections with no heat sources. Replaced before anything is added to it.
+    private static final LongOpenHashSet EMPTY_SECTION = new LongOpenHashSet(0);
+    // The order blocks were visited in when every block in range was scanned (X, then Z, then Y)
+    private static final LongComparator SCAN_ORDER = (a, b) ->
+    {
+        int compare = Integer.compare(BlockPos.getX(a), BlockPos.getX(b));
+        if (compare == 0) compare = Integer.compare(BlockPos.getZ(a), BlockPos.getZ(b));
+        return compare != 0 ? compare : Integer.compare(BlockPos.getY(a), BlockPos.getY(b));
+    };
+    // Incremented when the BlockTemp registry is rebuilt
+    private static volatile int GENERATION = 0;
+
+    private final LevelAccessor level;
+    private final Long2ObjectOpenHashMap<LongOpenHashSet> sections = new Long2ObjectOpenHashMap<>();
+    private int generation = GENERATION;
+
+    private HeatSourceIndex(LevelAccessor level)
+    {   this.level = level;
+    }
+
+    public static HeatSourceIndex get(LevelAccessor level)
+    {   return INDEXES.computeIfAbsent(level, HeatSourceIndex::new);
+    }
+
+    /**
+     * Marks the indexed sections in every level as outdated, so they are re-scanned with the current BlockTemps.<br>
+     * Called when the BlockTemp registry is rebuilt, which can happen on another thread than the one using the index.
+     * Each index drops its sections the next time it is used, on its own thread.
+     */
+    public static void clearAll()
+    {   GENERATION++;
+    }
+
+    private void checkGeneration()
+    {
+        int current = GENERATION;
+        if (generation != current)
+        {   sections.clear();
+            generation = current;
+        }
+    }
+
+    /**
+     * @return The packed positions of all heat sources in the cube from {@code center - range} (inclusive) to {@code center + range} (exclusive).<br>
+     * Sorted by X, then Z, then Y, so the result doesn't depend on the order sources were indexed in.
+     */
+    public LongArrayList getSourcesInRange(BlockPos center, int range)
+    {
+        this.checkGeneration();
+        LongArrayList sources = new LongArrayList();
+        int minX = center.getX() - range, maxX = center.getX() + range;
+        int minY = Math.max(center.getY() - range, level.getMinBuildHeight());
+        int maxY = Math.min(center.getY() + range, level.getMaxBuildHeight());
+        int minZ = center.getZ() - range, maxZ = center.getZ() + range;
+        if (minY >= maxY) return sources;
+
+        for (int sectionX = minX >> 4; sectionX <= (maxX - 1) >> 4; sectionX++)
+        {
+            for (int sectionZ = minZ >> 4; sectionZ <= (maxZ - 1) >> 4; sectionZ++)
+            {
+                ChunkAccess chunk = null;
+                for (int sectionY = minY >> 4; sectionY <= (maxY - 1) >> 4; sectionY++)
+                {
+                    long sectionPos = SectionPos.asLong(sectionX, sectionY, sectionZ);
+                    LongOpenHashSet sectionSources = sections.get(sectionPos);
+                    if (sectionSources == null)
+                    {
+                        if (chunk == null && (chunk = WorldHelper.getChunk(level, sectionX, sectionZ)) == null) break;
+                        sectionSources = this.scanSection(chunk, sectionX, sectionY, sectionZ);
+                        sections.put(sectionPos, sectionSources);
+                    }
+                    if (sectionSources.isEmpty()) continue;
+
+                    LongIterator iterator = sectionSources.iterator();
+                    while (iterator.hasNext())
+                    {
+                        long pos = iterator.nextLong();
+                        int x = BlockPos.getX(pos), y = BlockPos.getY(pos), z = BlockPos.getZ(pos);
+                        if (x >= minX && x < maxX && y >= minY && y < maxY && z >= minZ && z < maxZ)
+                        {   sources.add(pos);
+                        }
+                    }
+                }
+            }
+        }
+        sources.unstableSort(SCAN_ORDER);
+        return sources;
+    }
+
+    public void indexChunk(ChunkAccess chunk)
+    {
+        this.checkGeneration();
+        ChunkPos chunkPos = chunk.getPos();
+        for (int sectionY = chunk.getMinSection(); sectionY < chunk.getMaxSection(); sectionY++)
+        {   sections.put(SectionPos.asLong(chunkPos.x, sectionY, chunkPos.z), this.scanSection(chunk, chunkPos.x, sectionY, chunkPos.z));
+        }
+    }
+
+    public void evictChunk(ChunkPos chunkPos)
+    {
+        this.checkGeneration();
+        for (int sectionY = level.getMinSection(); sectionY < level.getMaxSection(); sectionY++)
+        {   sections.remove(SectionPos.asLong(chunkPos.x, sectionY, chunkPos.z));
+        }
+    }
+
+    private LongOpenHashSet scanSection(ChunkAccess chunk, int sectionX, int sectionY, int sectionZ)
+    {
+        int index = chunk.getSectionIndexFromSectionY(sectionY);
+        if (index < 0 || index >= chunk.getSectionsCount()) return EMPTY_SECTION;
+        LevelChunkSection section = chunk.getSection(index);
+        // Check the palette first, so sections without any heat sources don't have to be iterated
+        if (section.hasOnlyAir() || !section.maybeHas(BlockTempRegistry::hasBlockTemp)) return EMPTY_SECTION;
+
+        LongOpenHashSet sources = EMPTY_SECTION;
+        for (int y = 0; y < 16; y++)
+        {
+            for (int z = 0; z < 16; z++)
+            {
+                for (int x = 0; x < 16; x++)
+                {
+                    if (BlockTempRegistry.hasBlockTemp(section.getBlockState(x, y, z)))
+                    {   if (sources == EMPTY_SECTION) sources = new LongOpenHashSet();
+                        sources.add(BlockPos.asLong((sectionX << 4) + x, (sectionY << 4) + y, (sectionZ << 4) + z));
+                    }
+                }
+            }
+        }
+        return sources;
+    }
+
+    public void onBlockChanged(long pos, BlockState newState)
+    {
+        this.checkGeneration();
+        long sectionPos = SectionPos.blockToSection(pos);
+        LongOpenHashSet sectionSources = sections.get(sectionPos);
+        // Sections that haven't been scanned yet will pick up the change when they are
+        if (sectionSources == null) return;
+
+        if (BlockTempRegistry.hasBlockTemp(newState))
+        {   if (sectionSources == EMPTY_SECTION)
+            {   sections.put(sectionPos, sectionSources = new LongOpenHashSet());
+            }
+            sectionSources.add(pos);
+        }
+        else if (sectionSources.remove(pos) && sectionSources.isEmpty())
+        {   sections.put(sectionPos, EMPTY_SECTION);
+        }
+    }
+
+    @SubscribeEvent
+    public static void onBlockChanges(BlockChangeBatchEvent event)
+    {
+        HeatSourceIndex index = INDEXES.get(event.getLevel());
+        if (index == null) return;
+        index.checkGeneration();
+
+        for (int section = 0; section < event.getSectionCount(); section++)
+        {
+            // Sections that haven't been scanned yet will pick up the changes when they are
+            if (!index.sections.containsKey(event.getSectionPos(section))) continue;
+
+            for (int i = event.getSectionStart(section); i < event.getSectionEnd(section); i++)
+            {   index.onBlockChanged(event.getPackedPos(i), event.getNewState(i));
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public static void onChunkLoad(ChunkEvent.Load event)
+    {
+        if (event.getChunk() instanceof LevelChunk chunk)
+        {   get(event.getLevel()).indexChunk(chunk);
+        }
+    }
+
+    @SubscribeEvent
+    public static void onChunkUnload(ChunkEvent.Unload event)
+    {
+        HeatSourceIndex index = INDEXES.get(event.getLevel());
+        if (index != null)
+        {   index.evictChunk(event.getChunk().getPos());
+        }
+    }
+
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event)
+    {   INDEXES.remove(event.getLevel());
+    }
+}
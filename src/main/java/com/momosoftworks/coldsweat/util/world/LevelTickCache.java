@@ -0,0 +1,110 @@
+package com.momosoftworks.coldsweat.util.world;
+
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.LevelAccessor;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.levelgen.Heightmap;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-level cache of loaded chunks and terrain heights, shared by all TempModifiers that read blocks around entities.<br>
+ * Entries only live for the game tick they were read in, so several players in the same area only look up each chunk once,
+ * and unloaded chunks are never held onto.
+ */
+@Mod.EventBusSubscriber
+public class LevelTickCache
+{
+    private static final Map<LevelAccessor, LevelTickCache> CACHES = new ConcurrentHashMap<>();
+
+    private final Level level;
+    private long tick = Long.MIN_VALUE;
+    // Null values are stored for chunks that aren't loaded
+    private final Long2ObjectOpenHashMap<ChunkAccess> chunks = new Long2ObjectOpenHashMap<>();
+    private final Long2IntOpenHashMap heights = new Long2IntOpenHashMap();
+
+    private LevelTickCache(Level level)
+    {   this.level = level;
+    }
+
+    public static LevelTickCache get(Level level)
+    {   return CACHES.computeIfAbsent(level, l -> new LevelTickCache(level));
+    }
+
+    private void checkTick()
+    {
+        long gameTime = level.getGameTime();
+        if (gameTime != tick)
+        {   tick = gameTime;
+            chunks.clear();
+            heights.clear();
+        }
+    }
+
+    @Nullable
+    public ChunkAccess getChunk(int chunkX, int chunkZ)
+    {
+        this.checkTick();
+        long key = ChunkPos.asLong(chunkX, chunkZ);
+        ChunkAccess chunk = chunks.get(key);
+        if (chunk == null && !chunks.containsKey(key))
+        {   chunk = WorldHelper.getChunk(level, chunkX, chunkZ);
+            chunks.put(key, chunk);
+        }
+        return chunk;
+    }
+
+    /**
+     * @return The section containing the given block position, or null if it isn't loaded or is outside the world
+     */
+    @Nullable
+    public LevelChunkSection getSection(int x, int y, int z)
+    {
+        ChunkAccess chunk = this.getChunk(x >> 4, z >> 4);
+        if (chunk == null) return null;
+        int index = chunk.getSectionIndex(y);
+        return index >= 0 && index < chunk.getSectionsCount() ? chunk.getSection(index) : null;
+    }
+
+    /**
+     * @return The BlockState at the given position, or air if it isn't loaded
+     */
+    public BlockState getBlockState(int x, int y, int z)
+    {
+        LevelChunkSection section = this.getSection(x, y, z);
+        return section != null ? section.getBlockState(x & 15, y & 15, z & 15) : Blocks.AIR.defaultBlockState();
+    }
+
+    /**
+     * @return The height of the {@link Heightmap.Types#MOTION_BLOCKING} heightmap at the given column, or sea level if it isn't loaded
+     * @see WorldHelper#getHeight(BlockPos, Level)
+     */
+    public int getHeight(int x, int z)
+    {
+        this.checkTick();
+        long key = BlockPos.asLong(x, 0, z);
+        if (heights.containsKey(key)) return heights.get(key);
+
+        ChunkAccess chunk = this.getChunk(x >> 4, z >> 4);
+        int height = chunk != null ? chunk.getHeight(Heightmap.Types.MOTION_BLOCKING, x & 15, z & 15) : level.getSeaLevel();
+        heights.put(key, height);
+        return height;
+    }
+
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event)
+    {   CACHES.remove(event.getLevel());
+    }
+}
@@ -0,0 +1,137 @@
+package com.momosoftworks.coldsweat.util.world;
+
+import com.momosoftworks.coldsweat.api.event.common.BlockChangeBatchEvent;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.LevelAccessor;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongConsumer;
+
+/**
+ * Per-level registry of block entities (or anything else) that want to know about block changes in an area.<br>
+ * Listeners are stored per chunk section, so a block change only reaches the listeners whose area overlaps its
+ * section, instead of every listener in every level. Sections without listeners are skipped without looking at their changes.
+ */
+@Mod.EventBusSubscriber
+public class RegionListenerRegistry
+{
+    private static final Map<LevelAccessor, RegionListenerRegistry> REGISTRIES = new ConcurrentHashMap<>();
+
+    private final int minSection;
+    private final int maxSection;
+    // Section position -> listeners whose area overlaps the section
+    private final Long2ObjectOpenHashMap<List<Region>> sections = new Long2ObjectOpenHashMap<>();
+    private final Map<Listener, Region> regions = new IdentityHashMap<>();
+
+    private RegionListenerRegistry(Level level)
+    {   this.minSection = level.getMinSection();
+        this.maxSection = level.getMaxSection() - 1;
+    }
+
+    public static RegionListenerRegistry get(Level level)
+    {   return REGISTRIES.computeIfAbsent(level, l -> new RegionListenerRegistry(level));
+    }
+
+    /**
+     * Listens for block changes within {@code range} blocks of the center (in a cube).<br>
+     * Registering a listener again replaces its previous area.
+     */
+    public void register(Listener listener, BlockPos center, int range)
+    {
+        this.unregister(listener);
+        Region region = new Region(listener, center.getX() - range, center.getY() - range, center.getZ() - range,
+                                             center.getX() + range, center.getY() + range, center.getZ() + range);
+        regions.put(listener, region);
+        region.forEachSection(minSection, maxSection, sectionPos -> sections.computeIfAbsent(sectionPos, k -> new ArrayList<>(1)).add(region));
+    }
+
+    public void unregister(Listener listener)
+    {
+        Region region = regions.remove(listener);
+        if (region == null) return;
+
+        region.forEachSection(minSection, maxSection, sectionPos ->
+        {
+            List<Region> sectionList = sections.get(sectionPos);
+            if (sectionList != null && sectionList.remove(region) && sectionList.isEmpty())
+            {   sections.remove(sectionPos);
+            }
+        });
+    }
+
+    private void dispatch(BlockChangeBatchEvent changes)
+    {
+        for (int section = 0; section < changes.getSectionCount(); section++)
+        {
+            List<Region> sectionList = sections.get(changes.getSectionPos(section));
+            if (sectionList == null) continue;
+
+            // Copied in case a listener registers or unregisters while being notified
+            Region[] regions = sectionList.toArray(new Region[0]);
+            for (int i = changes.getSectionStart(section); i < changes.getSectionEnd(section); i++)
+            {
+                long pos = changes.getPackedPos(i);
+                for (Region region : regions)
+                {
+                    if (region.contains(pos))
+                    {   region.listener().onBlockChanged(changes, i);
+                    }
+                }
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public static void onBlockChanges(BlockChangeBatchEvent event)
+    {
+        RegionListenerRegistry registry = REGISTRIES.get(event.getLevel());
+        if (registry != null && !registry.sections.isEmpty())
+        {   registry.dispatch(event);
+        }
+    }
+
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event)
+    {   REGISTRIES.remove(event.getLevel());
+    }
+
+    @FunctionalInterface
+    public interface Listener
+    {
+        /**
+         * Called when a block within this listener's area changes
+         * @param change The index of the change in the batch
+         */
+        void onBlockChanged(BlockChangeBatchEvent changes, int change);
+    }
+
+    private record Region(Listener listener, int minX, int minY, int minZ, int maxX, int maxY, int maxZ)
+    {
+        boolean contains(long pos)
+        {   int x = BlockPos.getX(pos), y = BlockPos.getY(pos), z = BlockPos.getZ(pos);
+            return x >= minX && x <= maxX
+                && y >= minY && y <= maxY
+                && z >= minZ && z <= maxZ;
+        }
+
+        void forEachSection(int minSection, int maxSection, LongConsumer action)
+        {
+            int minSectionY = Math.max(minY >> 4, minSection);
+            int maxSectionY = Math.min(maxY >> 4, maxSection);
+            for (int sectionX = minX >> 4; sectionX <= maxX >> 4; sectionX++)
+            {   for (int sectionZ = minZ >> 4; sectionZ <= maxZ >> 4; sectionZ++)
+                {   for (int sectionY = minSectionY; sectionY <= maxSectionY; sectionY++)
+                    {   action.accept(SectionPos.asLong(sectionX, sectionY, sectionZ));
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.momosoftworks.coldsweat.util.world;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.LevelAccessor;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraftforge.event.level.ChunkEvent;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-level cache of which blocks "cap" their column from the sky (see {@link WorldHelper#canSeeSky(LevelAccessor, BlockPos, int)}).<br>
+ * Each chunk section is stored as 256 16-bit column masks, where each set bit is a block with a full upward-facing side.
+ * Sections are built lazily when first queried, dropped when a block in them changes, and evicted when their chunk unloads.
+ */
+@Mod.EventBusSubscriber
+public class SkyOcclusionCache
+{
+    private static final Map<LevelAccessor, SkyOcclusionCache> CACHES = new ConcurrentHashMap<>();
+    private static final short[] EMPTY_SECTION = new short[256];
+
+    private final Level level;
+    private final Long2ObjectOpenHashMap<short[]> sections = new Long2ObjectOpenHashMap<>();
+
+    private SkyOcclusionCache(Level level)
+    {   this.level = level;
+    }
+
+    public static SkyOcclusionCache get(Level level)
+    {   return CACHES.computeIfAbsent(level, l -> new SkyOcclusionCache(level));
+    }
+
+    /**
+     * @return True if no block caps the column from the position itself up to, but not including, {@code maxDistance} blocks above it
+     */
+    public boolean canSeeSky(BlockPos pos, int maxDistance)
+    {
+        int x = pos.getX();
+        int z = pos.getZ();
+        int minY = Math.max(pos.getY(), level.getMinBuildHeight());
+        int maxY = Math.min(pos.getY() + maxDistance, level.getMaxBuildHeight());
+        if (minY >= maxY) return true;
+
+        ChunkAccess chunk = WorldHelper.getChunk(level, x >> 4, z >> 4);
+        if (chunk == null) return true;
+
+        int column = (z & 15) << 4 | (x & 15);
+        for (int sectionY = minY >> 4; sectionY <= (maxY - 1) >> 4; sectionY++)
+        {
+            short[] masks = this.getSection(chunk, x >> 4, sectionY, z >> 4);
+            int mask = masks[column] & 0xFFFF;
+            if (mask == 0) continue;
+
+            // Only check the part of the section between minY and maxY
+            int sectionMin = sectionY << 4;
+            int from = Math.max(minY - sectionMin, 0);
+            int to = Math.min(maxY - sectionMin, 16);
+            int range = ((1 << to) - 1) & ~((1 << from) - 1);
+            if ((mask & range) != 0) return false;
+        }
+        return true;
+    }
+
+    private short[] getSection(ChunkAccess chunk, int sectionX, int sectionY, int sectionZ)
+    {
+        long key = SectionPos.asLong(sectionX, sectionY, sectionZ);
+        short[] masks = sections.get(key);
+        if (masks == null)
+        {   masks = this.buildSection(chunk, sectionX, sectionY, sectionZ);
+            sections.put(key, masks);
+        }
+        return masks;
+    }
+
+    private short[] buildSection(ChunkAccess chunk, int sectionX, int sectionY, int sectionZ)
+    {
+        int index = chunk.getSectionIndexFromSectionY(sectionY);
+        if (index < 0 || index >= chunk.getSectionsCount()) return EMPTY_SECTION;
+        LevelChunkSection section = chunk.getSection(index);
+        if (section.hasOnlyAir()) return EMPTY_SECTION;
+
+        short[] masks = new short[256];
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        for (int y = 0; y < 16; y++)
+        {
+            for (int z = 0; z < 16; z++)
+            {
+                for (int x = 0; x < 16; x++)
+                {
+                    BlockState state = section.getBlockState(x, y, z);
+                    if (state.isAir()) continue;
+
+                    pos.set((sectionX << 4) + x, (sectionY << 4) + y, (sectionZ << 4) + z);
+                    if (isSkyCap(level, state, pos))
+                    {   masks[z << 4 | x] |= 1 << y;
+                    }
+                }
+            }
+        }
+        return masks;
+    }
+
+    /**
+     * @return True if the block has a full hitbox, or its hitbox covers the whole column when viewed from above
+     */
+    public static boolean isSkyCap(LevelAccessor level, BlockState state, BlockPos pos)
+    {   return SpreadBlockingTable.isSkyCap(level, state, pos);
+    }
+
+    /**
+     * Drops the cached section containing the position, so it is rebuilt on the next query
+     */
+    public void invalidate(BlockPos pos)
+    {   sections.remove(SectionPos.asLong(pos.getX() >> 4, pos.getY() >> 4, pos.getZ() >> 4));
+    }
+
+    public void evictChunk(ChunkPos chunkPos)
+    {
+        for (int sectionY = level.getMinSection(); sectionY < level.getMaxSection(); sectionY++)
+        {   sections.remove(SectionPos.asLong(chunkPos.x, sectionY, chunkPos.z));
+        }
+    }
+
+    @SubscribeEvent
+    public static void onChunkUnload(ChunkEvent.Unload event)
+    {
+        SkyOcclusionCache cache = CACHES.get(event.getLevel());
+        if (cache != null)
+        {   cache.evictChunk(event.getChunk().getPos());
+        }
+    }
+
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event)
+    {   CACHES.remove(event.getLevel());
+    }
+}
@@ -0,0 +1,162 @@
+package com.momosoftworks.coldsweat.util.world;
+
+import com.momosoftworks.coldsweat.config.ConfigSettings;
+import com.momosoftworks.coldsweat.util.math.CSMath;
+import com.momosoftworks.coldsweat.util.registries.ModBlocks;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.world.level.BlockGetter;
+import net.minecraft.world.level.EmptyBlockGetter;
+import net.minecraft.world.level.LevelAccessor;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.phys.shapes.CollisionContext;
+import net.minecraft.world.phys.shapes.VoxelShape;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Lazily-built table of how each BlockState blocks Hearth spreading.<br>
+ * Each entry is a bitmask holding the 6x6 blocked to/from direction pairs, plus flags for full blocks, the spread
+ * whitelist/blacklist, and the sky-cap test used by {@link SkyOcclusionCache}.<br>
+ * States whose shape can change with their surroundings are flagged as dynamic and are checked in-world instead.<br>
+ * The table is rebuilt if the whitelist or blacklist is changed.
+ */
+public class SpreadBlockingTable
+{
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    // Bits 0-35 are the blocked direction pairs (toDir * 6 + fromDir)
+    private static final long FULL_BLOCK  = 1L << 36;
+    private static final long WHITELISTED = 1L << 37;
+    private static final long BLACKLISTED = 1L << 38;
+    private static final long DYNAMIC     = 1L << 39;
+    private static final long SKY_CAP     = 1L << 40;
+    private static final long COMPUTED    = 1L << 41;
+
+    // Replaced as a whole so that threads reading it never see a table built for other lists
+    private static volatile Table TABLE = new Table(null, null, new long[0]);
+
+    private SpreadBlockingTable() {}
+
+    /**
+     * @see WorldHelper#isSpreadBlocked(LevelAccessor, BlockState, BlockPos, Direction, Direction)
+     */
+    public static boolean isSpreadBlocked(BlockGetter level, BlockState state, BlockPos pos, Direction toDir, Direction fromDir)
+    {
+        long entry = getEntry(state);
+        if ((entry & WHITELISTED) != 0) return false;
+        if ((entry & (BLACKLISTED | FULL_BLOCK)) != 0) return true;
+        if ((entry & DYNAMIC) != 0)
+        {
+            VoxelShape shape = state.getShape(level, pos, CollisionContext.empty());
+            if (Block.isShapeFullBlock(shape)) return true;
+            return WorldHelper.isFullSide(shape.getFaceShape(fromDir.getOpposite()), fromDir)
+                || WorldHelper.isFullSide(CSMath.flattenShape(toDir.getAxis(), shape), toDir);
+        }
+        return (entry & pairBit(toDir, fromDir)) != 0;
+    }
+
+    /**
+     * @see SkyOcclusionCache#isSkyCap(LevelAccessor, BlockState, BlockPos)
+     */
+    public static boolean isSkyCap(BlockGetter level, BlockState state, BlockPos pos)
+    {
+        long entry = getEntry(state);
+        if ((entry & DYNAMIC) != 0)
+        {   return isSkyCap(state.getShape(level, pos, CollisionContext.empty()));
+        }
+        return (entry & SKY_CAP) != 0;
+    }
+
+    private static long getEntry(BlockState state)
+    {
+        List<Block> whitelist = ConfigSettings.HEARTH_SPREAD_WHITELIST.get();
+        List<Block> blacklist = ConfigSettings.HEARTH_SPREAD_BLACKLIST.get();
+        Table table = TABLE;
+        // The lists are replaced whenever the config is loaded or synced
+        if (whitelist != table.whitelist() || blacklist != table.blacklist())
+        {   TABLE = table = new Table(whitelist, blacklist, new long[Block.BLOCK_STATE_REGISTRY.size()]);
+        }
+
+        int id = Block.getId(state);
+        if (id < 0) return computeEntry(state, whitelist, blacklist);
+        if (id >= table.entries().length)
+        {   TABLE = table = new Table(whitelist, blacklist, Arrays.copyOf(table.entries(), Math.max(id + 1, Block.BLOCK_STATE_REGISTRY.size())));
+        }
+
+        long[] entries = table.entries();
+        long entry = entries[id];
+        if (entry == 0)
+        {   entries[id] = entry = computeEntry(state, whitelist, blacklist);
+        }
+        return entry;
+    }
+
+    private static long computeEntry(BlockState state, List<Block> whitelist, List<Block> blacklist)
+    {
+        long entry = COMPUTED;
+        Block block = state.getBlock();
+        if (state.isAir() || whitelist.contains(block) || block == ModBlocks.HEARTH_BOTTOM || block == ModBlocks.HEARTH_TOP)
+        {   entry |= WHITELISTED;
+        }
+        else if (blacklist.contains(block))
+        {   entry |= BLACKLISTED;
+        }
+
+        // Shapes that depend on the block's position or surroundings can't be cached
+        if (block.hasDynamicShape() || state.hasOffsetFunction())
+        {   return entry | DYNAMIC;
+        }
+
+        VoxelShape shape;
+        try
+        {   shape = state.getShape(EmptyBlockGetter.INSTANCE, BlockPos.ZERO, CollisionContext.empty());
+        }
+        // Some modded blocks read their block entity or neighbors to get their shape, which fails out of the world
+        catch (Exception e)
+        {   return entry | DYNAMIC;
+        }
+        if (Block.isShapeFullBlock(shape))
+        {   return entry | FULL_BLOCK | SKY_CAP;
+        }
+        if (isSkyCap(shape))
+        {   entry |= SKY_CAP;
+        }
+        return entry | computeBlockedPairs(shape);
+    }
+
+    private static long computeBlockedPairs(VoxelShape shape)
+    {
+        boolean[] blocksFrom = new boolean[6];
+        boolean[] blocksTo = new boolean[6];
+        for (Direction direction : DIRECTIONS)
+        {   // Should it have spread here in the first place?
+            blocksFrom[direction.ordinal()] = WorldHelper.isFullSide(shape.getFaceShape(direction.getOpposite()), direction);
+            // Can it spread out?
+            blocksTo[direction.ordinal()] = WorldHelper.isFullSide(CSMath.flattenShape(direction.getAxis(), shape), direction);
+        }
+
+        long pairs = 0;
+        for (Direction to : DIRECTIONS)
+        {   for (Direction from : DIRECTIONS)
+            {   if (blocksFrom[from.ordinal()] || blocksTo[to.ordinal()])
+                {   pairs |= pairBit(to, from);
+                }
+            }
+        }
+        return pairs;
+    }
+
+    private static boolean isSkyCap(VoxelShape shape)
+    {   return Block.isShapeFullBlock(shape) || WorldHelper.isFullSide(CSMath.flattenShape(Direction.Axis.Y, shape), Direction.UP);
+    }
+
+    private static long pairBit(Direction toDir, Direction fromDir)
+    {   return 1L << (toDir.ordinal() * 6 + fromDir.ordinal());
+    }
+
+    private record Table(List<Block> whitelist, List<Block> blacklist, long[] entries)
+    {}
+}
@@ -0,0 +1,345 @@
+package com.momosoftworks.coldsweat.util.world;
+
+import it.unimi.dsi.fastutil.longs.Long2ByteOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+
+import javax.annotation.Nullable;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.function.LongConsumer;
+
+/**
+ * Primitive-backed storage for a Hearth's {@link SpreadPath}s.<br>
+ * Paths are stored as parallel arrays of packed positions ({@link BlockPos#asLong()}), packed origins, and a flag byte
+ * holding the direction and frozen state. Paths are removed by swapping in the last element, so removal is O(1), but
+ * the order of paths is not preserved.<br>
+ * <br>
+ * The lookup set is separate from the path list; a position can be marked as visited without having a path stored for it.
+ * Each visited position remembers the direction it was spread to from, which links it to its parent position. This is
+ * used to find everything "downstream" of a changed block without rebuilding the whole area.<br>
+ * Visited positions that were blocked from spreading further (walls, barriers) are never added as paths. Positions that were added as paths
+ * remember their origin, so culled paths can be re-created as they were.
+ */
+public class SpreadPathStore
+{
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final int DIRECTION_MASK = 0b0111;
+    private static final int FROZEN_FLAG = 0b1000;
+    private static final byte NOT_VISITED = -1;
+
+    private long[] positions;
+    private long[] origins;
+    private byte[] flags;
+    private int size = 0;
+    // Incremented whenever the set of visited positions changes
+    private int version = 0;
+
+    // Visited positions -> the ordinal of the direction they were spread to from
+    private final Long2ByteOpenHashMap lookup;
+    // Positions that were added as paths -> their origin. Kept after a path is culled, until the position is un-visited.
+    private final Long2LongOpenHashMap pathOrigins;
+    private final Set<BlockPos> lookupView = new LookupView();
+
+    public SpreadPathStore(int initialCapacity)
+    {
+        int capacity = Math.max(16, initialCapacity);
+        this.positions = new long[capacity];
+        this.origins = new long[capacity];
+        this.flags = new byte[capacity];
+        this.lookup = new Long2ByteOpenHashMap(capacity);
+        this.lookup.defaultReturnValue(NOT_VISITED);
+        this.pathOrigins = new Long2LongOpenHashMap(capacity);
+    }
+
+    public int size()
+    {   return size;
+    }
+
+    public boolean isEmpty()
+    {   return size == 0;
+    }
+
+    /**
+     * Adds a path to the store. Does not mark its position as visited.
+     */
+    public void add(long pos, long origin, Direction direction)
+    {
+        if (size == positions.length)
+        {   int newCapacity = size + (size >> 1);
+            positions = Arrays.copyOf(positions, newCapacity);
+            origins = Arrays.copyOf(origins, newCapacity);
+            flags = Arrays.copyOf(flags, newCapacity);
+        }
+        positions[size] = pos;
+        origins[size] = origin;
+        flags[size] = (byte) direction.ordinal();
+        pathOrigins.put(pos, origin);
+        size++;
+    }
+
+    public void add(SpreadPath path)
+    {   long pos = path.pos.asLong();
+        this.add(pos, path.origin != null ? path.origin.asLong() : pos, path.direction);
+        if (path.frozen) this.setFrozen(size - 1, true);
+    }
+
+    public void addAll(Collection<SpreadPath> paths)
+    {   for (SpreadPath path : paths)
+        {   this.add(path);
+        }
+    }
+
+    /**
+     * Removes the path at the given index by moving the last path into its place.
+     */
+    public void remove(int index)
+    {
+        int last = --size;
+        if (index != last)
+        {   positions[index] = positions[last];
+            origins[index] = origins[last];
+            flags[index] = flags[last];
+        }
+    }
+
+    /**
+     * Clears all paths and the lookup set.
+     */
+    public void clear()
+    {   size = 0;
+        lookup.clear();
+        pathOrigins.clear();
+        version++;
+    }
+
+    public long getPos(int index)
+    {   return positions[index];
+    }
+
+    public long getOrigin(int index)
+    {   return origins[index];
+    }
+
+    public void setOrigin(int index, long origin)
+    {   origins[index] = origin;
+        pathOrigins.put(positions[index], origin);
+    }
+
+    public Direction getDirection(int index)
+    {   return DIRECTIONS[flags[index] & DIRECTION_MASK];
+    }
+
+    public boolean isFrozen(int index)
+    {   return (flags[index] & FROZEN_FLAG) != 0;
+    }
+
+    public void setFrozen(int index, boolean frozen)
+    {   flags[index] = (byte) (frozen ? flags[index] | FROZEN_FLAG : flags[index] & ~FROZEN_FLAG);
+    }
+
+    public int countFrozen()
+    {   int count = 0;
+        for (int i = 0; i < size; i++)
+        {   if ((flags[i] & FROZEN_FLAG) != 0) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Marks the position as visited.
+     * @param direction The direction the position was spread to from
+     * @return True if the position was not already visited
+     */
+    public boolean visit(long pos, Direction direction)
+    {   if (lookup.putIfAbsent(pos, (byte) direction.ordinal()) == NOT_VISITED)
+        {   version++;
+            return true;
+        }
+        return false;
+    }
+
+    public boolean unvisit(long pos)
+    {   pathOrigins.remove(pos);
+        if (lookup.remove(pos) != NOT_VISITED)
+        {   version++;
+            return true;
+        }
+        return false;
+    }
+
+    public boolean isVisited(long pos)
+    {   return lookup.containsKey(pos);
+    }
+
+    /**
+     * @return The direction the position was spread to from, or null if it isn't visited
+     */
+    @Nullable
+    public Direction getVisitedDirection(long pos)
+    {   byte direction = lookup.get(pos);
+        return direction == NOT_VISITED ? null : DIRECTIONS[direction];
+    }
+
+    /**
+     * @return Whether the position was added as a path, even if the path has since been culled
+     */
+    public boolean isPath(long pos)
+    {   return pathOrigins.containsKey(pos);
+    }
+
+    /**
+     * @return The origin the position had when it was added as a path
+     */
+    public long getPathOrigin(long pos)
+    {   return pathOrigins.get(pos);
+    }
+
+    public int visitedCount()
+    {   return lookup.size();
+    }
+
+    public void forEachVisited(LongConsumer action)
+    {   lookup.keySet().forEach(action);
+    }
+
+    /**
+     * @return A copy of the visited positions
+     */
+    public long[] getVisitedArray()
+    {   return lookup.keySet().toLongArray();
+    }
+
+    /**
+     * @return A number that changes whenever the set of visited positions changes
+     */
+    public int getVersion()
+    {   return version;
+    }
+
+    /**
+     * Removes the given positions and every visited position that was spread to through them.<br>
+     * Paths bordering the removed area are un-frozen (or re-created with their original origin, if they were culled)
+     * so they can spread into it again. Blocked positions on the border stay blocked.<br>
+     * All changes are handled in one pass over the paths, so a batch costs about the same as a single change.
+     * @param changes The positions that changed
+     * @param root The position of the Hearth. Always counts as a border.
+     * @return The number of positions that were removed
+     */
+    public int invalidate(long[] changes, long root)
+    {
+        // Walk downstream of every change, following the stored direction of each visited position
+        LongOpenHashSet removed = new LongOpenHashSet();
+        LongArrayFIFOQueue queue = new LongArrayFIFOQueue();
+        for (long change : changes)
+        {   if (lookup.containsKey(change) && removed.add(change))
+            {   queue.enqueue(change);
+            }
+        }
+        if (removed.isEmpty()) return 0;
+
+        while (!queue.isEmpty())
+        {
+            long current = queue.dequeueLong();
+            for (int d = 0; d < DIRECTIONS.length; d++)
+            {
+                long child = BlockPos.offset(current, DIRECTIONS[d]);
+                if (lookup.get(child) == d && removed.add(child))
+                {   queue.enqueue(child);
+                }
+            }
+        }
+        LongIterator removeIterator = removed.iterator();
+        while (removeIterator.hasNext())
+        {   long removedPos = removeIterator.nextLong();
+            lookup.remove(removedPos);
+            pathOrigins.remove(removedPos);
+        }
+        version++;
+
+        // Remove the invalidated paths & re-open paths on the border
+        LongOpenHashSet border = new LongOpenHashSet();
+        for (int i = 0; i < size; i++)
+        {
+            long pathPos = positions[i];
+            if (removed.contains(pathPos))
+            {   this.remove(i);
+                i--;
+            }
+            else if (this.touches(pathPos, removed))
+            {   this.setFrozen(i, false);
+                border.add(pathPos);
+            }
+        }
+
+        // Re-create border paths that were culled after the spread finished
+        removeIterator = removed.iterator();
+        while (removeIterator.hasNext())
+        {
+            long removedPos = removeIterator.nextLong();
+            for (int d = 0; d < DIRECTIONS.length; d++)
+            {
+                long neighbor = BlockPos.offset(removedPos, DIRECTIONS[d]);
+                boolean isPath = pathOrigins.containsKey(neighbor);
+                if ((isPath || neighbor == root) && border.add(neighbor))
+                {   byte direction = lookup.get(neighbor);
+                    this.add(neighbor, isPath ? pathOrigins.get(neighbor) : root, direction != NOT_VISITED ? DIRECTIONS[direction] : Direction.UP);
+                }
+            }
+        }
+        return removed.size();
+    }
+
+    private boolean touches(long pos, LongOpenHashSet positions)
+    {
+        for (int d = 0; d < DIRECTIONS.length; d++)
+        {   if (positions.contains(BlockPos.offset(pos, DIRECTIONS[d]))) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return A read-only {@link Set} view of the visited positions. Lookups do not allocate.
+     */
+    public Set<BlockPos> getLookupView()
+    {   return lookupView;
+    }
+
+    private class LookupView extends AbstractSet<BlockPos>
+    {
+        @Override
+        public boolean contains(Object o)
+        {   return o instanceof BlockPos pos && lookup.containsKey(pos.asLong());
+        }
+
+        @Override
+        public int size()
+        {   return lookup.size();
+        }
+
+        @Override
+        public Iterator<BlockPos> iterator()
+        {
+            LongIterator iterator = lookup.keySet().iterator();
+            return new Iterator<>()
+            {
+                @Override
+                public boolean hasNext()
+                {   return iterator.hasNext();
+                }
+
+                @Override
+                public BlockPos next()
+                {   return BlockPos.of(iterator.nextLong());
+                }
+            };
+        }
+    }
+}
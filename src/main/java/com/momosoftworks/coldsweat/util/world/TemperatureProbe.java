@@ -0,0 +1,114 @@
+package com.momosoftworks.coldsweat.util.world;
+
+import com.momosoftworks.coldsweat.api.registry.TempModifierRegistry;
+import com.momosoftworks.coldsweat.api.temperature.modifier.BiomeTempModifier;
+import com.momosoftworks.coldsweat.api.temperature.modifier.BlockTempModifier;
+import com.momosoftworks.coldsweat.api.temperature.modifier.TempModifier;
+import com.momosoftworks.coldsweat.api.temperature.modifier.UndergroundTempModifier;
+import com.momosoftworks.coldsweat.api.util.Temperature;
+import com.momosoftworks.coldsweat.util.compat.CompatManager;
+import com.momosoftworks.coldsweat.util.math.CSMath;
+import com.momosoftworks.coldsweat.util.serialization.ListBuilder;
+import it.unimi.dsi.fastutil.longs.Long2DoubleOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.entity.monster.Silverfish;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.LevelAccessor;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Per-level calculator for the world temperature at a position, used by {@link Temperature#getTemperatureAt}.<br>
+ * The same TempModifier instances are reused for every position. Modifiers that implement
+ * {@link TempModifier#calculateAt} don't need an entity at all. The others are given a placeholder entity, which is only
+ * created and moved when one of them needs it.<br>
+ * Results are kept for the rest of the game tick, so asking for the same position again is free.
+ */
+@Mod.EventBusSubscriber
+public class TemperatureProbe
+{
+    private static final Map<LevelAccessor, TemperatureProbe> PROBES = new ConcurrentHashMap<>();
+
+    private final Level level;
+    private final List<TempModifier> modifiers;
+    private LivingEntity placeholder = null;
+    private long tick = Long.MIN_VALUE;
+    private final Long2DoubleOpenHashMap results = new Long2DoubleOpenHashMap();
+
+    private TemperatureProbe(Level level)
+    {
+        this.level = level;
+        this.modifiers = ListBuilder.<TempModifier>begin(new BiomeTempModifier(9))
+                                    .addIf(CompatManager.isSereneSeasonsLoaded(),
+                                        () -> TempModifierRegistry.getEntryFor("sereneseasons:season").orElse(null))
+                                    .add(new UndergroundTempModifier(),
+                                         new BlockTempModifier()).build();
+    }
+
+    public static TemperatureProbe get(Level level)
+    {   return PROBES.computeIfAbsent(level, l -> new TemperatureProbe(level));
+    }
+
+    /**
+     * @return The world temperature at the given position, in MC units
+     */
+    public double getTemperature(BlockPos pos)
+    {
+        long gameTime = level.getGameTime();
+        if (gameTime != tick)
+        {   tick = gameTime;
+            results.clear();
+        }
+        long key = pos.asLong();
+        if (results.containsKey(key)) return results.get(key);
+
+        double temp = 0;
+        Supplier<LivingEntity> placeholder = () -> this.getPlaceholder(pos);
+        for (int i = 0; i < modifiers.size(); i++)
+        {
+            TempModifier modifier = modifiers.get(i);
+            if (modifier == null) continue;
+
+            double newTemp = modifier.updateAt(temp, level, pos, Temperature.Type.WORLD, placeholder);
+            if (!Double.isNaN(newTemp))
+            {   temp = newTemp;
+            }
+        }
+        results.put(key, temp);
+        return temp;
+    }
+
+    /**
+     * @return The world temperature at each of the given positions, in the same order
+     */
+    public double[] getTemperatures(List<BlockPos> positions)
+    {
+        double[] temps = new double[positions.size()];
+        for (int i = 0; i < temps.length; i++)
+        {   temps[i] = this.getTemperature(positions.get(i));
+        }
+        return temps;
+    }
+
+    private LivingEntity getPlaceholder(BlockPos pos)
+    {
+        if (placeholder == null)
+        {   placeholder = new Silverfish(EntityType.SILVERFISH, level);
+        }
+        placeholder.setPos(CSMath.getCenterPos(pos));
+        return placeholder;
+    }
+
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event)
+    {   PROBES.remove(event.getLevel());
+    }
+}
@@ -0,0 +1,87 @@
+package com.momosoftworks.coldsweat.util.world;
+
+import com.momosoftworks.coldsweat.api.util.Temperature;
+import com.momosoftworks.coldsweat.common.blockentity.ThermolithBlockEntity;
+import com.momosoftworks.coldsweat.config.ConfigSettings;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.LevelAccessor;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-level list of loaded Thermoliths, which recalculates their temperatures in batches.<br>
+ * A Thermolith is only recalculated when something that affects its temperature changes: a block within
+ * {@link ConfigSettings#BLOCK_RANGE} (see {@link ThermolithBlockEntity#onBlockChanged}), the time of day
+ * (in steps of {@link #DAY_PHASE_TICKS}), the weather, or the config.
+ * Otherwise, it is recalculated every {@link ConfigSettings#THERMOLITH_HEARTBEAT} ticks.
+ */
+@Mod.EventBusSubscriber
+public class ThermolithTracker
+{
+    private static final Map<LevelAccessor, ThermolithTracker> TRACKERS = new ConcurrentHashMap<>();
+    private static final int UPDATE_INTERVAL = 10;
+    private static final int DAY_PHASE_TICKS = 600;
+
+    private final Set<ThermolithBlockEntity> thermoliths = new LinkedHashSet<>();
+    private int lastEnvironment = 0;
+
+    public static ThermolithTracker get(LevelAccessor level)
+    {   return TRACKERS.computeIfAbsent(level, l -> new ThermolithTracker());
+    }
+
+    public void addThermolith(ThermolithBlockEntity thermolith)
+    {   thermoliths.add(thermolith);
+    }
+
+    public void removeThermolith(ThermolithBlockEntity thermolith)
+    {   thermoliths.remove(thermolith);
+    }
+
+    private void tick(ServerLevel level)
+    {
+        long gameTime = level.getGameTime();
+        int heartbeat = ConfigSettings.THERMOLITH_HEARTBEAT.get();
+        int environment = Objects.hash(level.getDayTime() / DAY_PHASE_TICKS, level.isRaining(), level.isThundering(), ConfigSettings.getLoadCount());
+        boolean environmentChanged = environment != lastEnvironment;
+        lastEnvironment = environment;
+
+        List<ThermolithBlockEntity> due = new ArrayList<>();
+        List<BlockPos> positions = new ArrayList<>();
+        for (ThermolithBlockEntity thermolith : thermoliths)
+        {
+            if (environmentChanged || thermolith.isInvalid() || gameTime - thermolith.getLastUpdate() >= heartbeat)
+            {   due.add(thermolith);
+                positions.add(thermolith.getBlockPos());
+            }
+        }
+        if (due.isEmpty()) return;
+
+        double[] temperatures = Temperature.getTemperaturesAt(positions, level);
+        for (int i = 0; i < due.size(); i++)
+        {   due.get(i).setTemperature(temperatures[i], gameTime);
+        }
+    }
+
+    @SubscribeEvent
+    public static void onLevelTick(TickEvent.LevelTickEvent event)
+    {
+        if (event.phase == TickEvent.Phase.END && event.level instanceof ServerLevel level && level.getGameTime() % UPDATE_INTERVAL == 0)
+        {
+            ThermolithTracker tracker = TRACKERS.get(level);
+            if (tracker != null && !tracker.thermoliths.isEmpty())
+            {   tracker.tick(level);
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event)
+    {   TRACKERS.remove(event.getLevel());
+    }
+}
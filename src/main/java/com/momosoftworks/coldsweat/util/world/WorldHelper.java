@@ -1,6 +1,5 @@
 package com.momosoftworks.coldsweat.util.world;
 
-import com.momosoftworks.coldsweat.config.ConfigSettings;
 import com.momosoftworks.coldsweat.core.network.ColdSweatPacketHandler;
 import com.momosoftworks.coldsweat.core.network.message.BlockDataUpdateMessage;
 import com.momosoftworks.coldsweat.core.network.message.ParticleBatchMessage;
@@ -9,7 +8,7 @@ import com.momosoftworks.coldsweat.core.network.message.SyncForgeDataMessage;
 import com.momosoftworks.coldsweat.util.ClientOnlyHelper;
 import com.momosoftworks.coldsweat.util.compat.CompatManager;
 import com.momosoftworks.coldsweat.util.math.CSMath;
-import com.momosoftworks.coldsweat.util.registries.ModBlocks;
+import com.momosoftworks.coldsweat.util.math.VoxelRay;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.core.Registry;
@@ -26,17 +25,16 @@ import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.LevelAccessor;
 import net.minecraft.world.level.biome.Biome;
-import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.chunk.ChunkAccess;
 import net.minecraft.world.level.chunk.LevelChunk;
 import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.chunk.PalettedContainer;
 import net.minecraft.world.level.levelgen.Heightmap;
 import net.minecraft.world.phys.AABB;
 import net.minecraft.world.phys.Vec3;
-import net.minecraft.world.phys.shapes.CollisionContext;
 import net.minecraft.world.phys.shapes.VoxelShape;
 import net.minecraftforge.network.PacketDistributor;
 import net.minecraftforge.registries.ForgeRegistries;
@@ -45,9 +43,7 @@ import net.minecraftforge.server.ServerLifecycleHooks;
 import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.Random;
-import java.util.function.BiConsumer;
 import java.util.function.Predicate;
 
 public class WorldHelper
@@ -136,6 +132,11 @@ public class WorldHelper
      */
     public static boolean canSeeSky(LevelAccessor level, BlockPos pos, int maxDistance)
     {
+        // Use the cached column data for real levels
+        if (level instanceof Level realLevel)
+        {   return SkyOcclusionCache.get(realLevel).canSeeSky(pos, maxDistance);
+        }
+
         BlockPos.MutableBlockPos pos2 = pos.mutable();
         int iterations = Math.min(maxDistance, level.getMaxBuildHeight() - pos.getY());
         ChunkAccess chunk = getChunk(level, pos);
@@ -143,10 +144,7 @@ public class WorldHelper
         for (int i = 0; i < iterations; i++)
         {
             BlockState state = chunk.getBlockState(pos2);
-            VoxelShape shape = state.getShape(level, pos, CollisionContext.empty());
-            if (Block.isShapeFullBlock(shape)) return false;
-
-            if (isFullSide(CSMath.flattenShape(Direction.Axis.Y, shape), Direction.UP))
+            if (SkyOcclusionCache.isSkyCap(level, state, pos2))
             {   return false;
             }
 
@@ -155,22 +153,12 @@ public class WorldHelper
         return true;
     }
 
+    /**
+     * @return True if Hearth air can't pass through the block when entering from {@code fromDir} and leaving toward {@code toDir}.<br>
+     * Results are cached per BlockState in {@link SpreadBlockingTable}.
+     */
     public static boolean isSpreadBlocked(LevelAccessor level, BlockState state, BlockPos pos, Direction toDir, Direction fromDir)
-    {
-        Block block = state.getBlock();
-        if (state.isAir() || ConfigSettings.HEARTH_SPREAD_WHITELIST.get().contains(block)
-        || block == ModBlocks.HEARTH_BOTTOM || block == ModBlocks.HEARTH_TOP)
-        {   return false;
-        }
-        if (ConfigSettings.HEARTH_SPREAD_BLACKLIST.get().contains(block)) return true;
-
-        VoxelShape shape = state.getShape(level, pos, CollisionContext.empty());
-        if (Block.isShapeFullBlock(shape)) return true;
-
-               // Should it have spread here in the first place?
-        return isFullSide(shape.getFaceShape(fromDir.getOpposite()), fromDir)
-               // Can it spread out?
-            || isFullSide(CSMath.flattenShape(toDir.getAxis(), shape), toDir);
+    {   return SpreadBlockingTable.isSpreadBlocked(level, state, pos, toDir, fromDir);
     }
 
     public static boolean isFullSide(VoxelShape shape, Direction dir)
@@ -248,53 +236,104 @@ public class WorldHelper
     }
 
     /**
-     * Iterates through every block along the given vector
-     * @param from The starting position
-     * @param to The ending position
-     * @param rayTracer function to run on each found block
-     * @param maxHits the maximum number of blocks to act upon before the ray expires
+     * Visits a block along a ray cast by {@link #forBlocksInRay(double, double, double, double, double, double, Level, RayVisitor, int)}
      */
-    public static void forBlocksInRay(Vec3 from, Vec3 to, Level level, ChunkAccess chunk, Map<BlockPos, BlockState> stateCache, BiConsumer<BlockState, BlockPos> rayTracer, int maxHits)
+    @FunctionalInterface
+    public interface RayVisitor
     {
-        // Don't bother if the ray has no length
-        if (!from.equals(to))
-        {
-            Vec3 ray = to.subtract(from);
-            Vec3 normalRay = ray.normalize();
-            BlockPos.MutableBlockPos pos = BlockPos.containing(from).mutable();
-            ChunkAccess workingChunk = chunk;
-
-            // Iterate over every block-long segment of the ray
-            for (int i = 0; i < ray.length(); i++)
-            {
-                // Get the position of the current segment
-                Vec3 vec = from.add(normalRay.scale(i));
+        /**
+         * @param pos The block's position. This is reused for every block, so it must be copied if it needs to be kept.
+         * @return True if this block should be counted
+         */
+        boolean visit(BlockState state, BlockPos pos);
+    }
 
-                // Skip if the position is the same as the last one
-                if (BlockPos.containing(vec).equals(pos)) continue;
-                pos.set(vec.x, vec.y, vec.z);
+    /**
+     * Provides the blocks a ray is cast through, one chunk section at a time
+     */
+    @FunctionalInterface
+    public interface SectionGetter
+    {
+        /**
+         * @return The block states of the section containing the given block position, or null if it isn't loaded
+         */
+        @Nullable
+        PalettedContainer<BlockState> getSection(int x, int y, int z);
+    }
 
-                // Get the blockstate at the current position
-                BlockState state = stateCache.get(pos);
+    public static int forBlocksInRay(Vec3 from, Vec3 to, Level level, RayVisitor visitor, int maxHits)
+    {   return forBlocksInRay(from.x, from.y, from.z, to.x, to.y, to.z, level, visitor, maxHits);
+    }
 
-                if (state == null)
-                {   // Set new workingChunk if the ray travels outside the current one
-                    if (workingChunk == null || !workingChunk.getPos().equals(new ChunkPos(pos)))
-                        workingChunk = getChunk(level, pos);
+    /**
+     * Visits every block that the line between the two points passes through.<br>
+     * Chunks are read through the level's {@link LevelTickCache}.
+     * @see #forBlocksInRay(double, double, double, double, double, double, SectionGetter, RayVisitor, int)
+     */
+    public static int forBlocksInRay(double fromX, double fromY, double fromZ, double toX, double toY, double toZ,
+                                     Level level, RayVisitor visitor, int maxHits)
+    {
+        LevelTickCache cache = LevelTickCache.get(level);
+        return forBlocksInRay(fromX, fromY, fromZ, toX, toY, toZ, (x, y, z) ->
+        {   LevelChunkSection section = cache.getSection(x, y, z);
+            return section != null ? section.getStates() : null;
+        }, visitor, maxHits);
+    }
 
-                    if (workingChunk == null) continue;
-                    state = workingChunk.getBlockState(pos);
-                    stateCache.put(pos.immutable(), state);
-                }
+    /**
+     * Visits every block that the line between the two points passes through, in order.
+     * The blocks containing the start and end points are not visited.<br>
+     * @param sections provides the blocks along the ray
+     * @param visitor function to run on each found block
+     * @param maxHits the maximum number of non-air blocks to act upon before the ray expires
+     * @return The number of blocks for which the visitor returned true
+     * @see VoxelRay#forCellsInRay(double, double, double, double, double, double, VoxelRay.CellVisitor)
+     */
+    public static int forBlocksInRay(double fromX, double fromY, double fromZ, double toX, double toY, double toZ,
+                                     SectionGetter sections, RayVisitor visitor, int maxHits)
+    {
+        SectionRayWalker walker = new SectionRayWalker(sections, visitor, maxHits);
+        VoxelRay.forCellsInRay(fromX, fromY, fromZ, toX, toY, toZ, walker);
+        return walker.count;
+    }
 
+    private static class SectionRayWalker implements VoxelRay.CellVisitor
+    {
+        final SectionGetter sections;
+        final RayVisitor visitor;
+        final BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        PalettedContainer<BlockState> section = null;
+        int sectionX = Integer.MIN_VALUE, sectionY = Integer.MIN_VALUE, sectionZ = Integer.MIN_VALUE;
+        int hitsLeft;
+        int count = 0;
+
+        SectionRayWalker(SectionGetter sections, RayVisitor visitor, int maxHits)
+        {   this.sections = sections;
+            this.visitor = visitor;
+            this.hitsLeft = maxHits;
+        }
 
-                // If the block isn't air, then we hit something
-                if (!state.isAir() && --maxHits <= 0)
-                {   break;
-                }
+        @Override
+        public boolean visit(int x, int y, int z)
+        {
+            // Only look up the section when the ray enters a new one
+            if (x >> 4 != sectionX || y >> 4 != sectionY || z >> 4 != sectionZ)
+            {   sectionX = x >> 4;
+                sectionY = y >> 4;
+                sectionZ = z >> 4;
+                section = sections.getSection(x, y, z);
+            }
+            if (section == null) return true;
 
-                rayTracer.accept(state, pos);
+            BlockState state = section.get(x & 15, y & 15, z & 15);
+            // If the block isn't air, then we hit something
+            if (!state.isAir() && --hitsLeft <= 0)
+            {   return false;
+            }
+            if (visitor.visit(state, pos.set(x, y, z)))
+            {   count++;
             }
+            return true;
         }
     }
 
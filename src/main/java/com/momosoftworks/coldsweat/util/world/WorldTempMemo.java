@@ -0,0 +1,87 @@
+package com.momosoftworks.coldsweat.util.world;
+
+import com.momosoftworks.coldsweat.config.ConfigSettings;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.LevelAccessor;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Per-level memo of world temperature contributions, so entities standing close together share one calculation.<br>
+ * Results are stored per cell of {@link ConfigSettings#WORLD_TEMP_CELL_SIZE} blocks, and are reused for
+ * {@link ConfigSettings#WORLD_TEMP_CACHE_TIME} ticks after they are calculated.
+ */
+@Mod.EventBusSubscriber
+public class WorldTempMemo
+{
+    private static final Map<LevelAccessor, WorldTempMemo> MEMOS = new ConcurrentHashMap<>();
+
+    private final Level level;
+    // Keyed by the ID of the TempModifier that stored the result
+    private final Map<String, Long2ObjectOpenHashMap<Entry>> channels = new HashMap<>();
+    private int lastCellSize = 0;
+    private long lastCleanup = 0;
+
+    private WorldTempMemo(Level level)
+    {   this.level = level;
+    }
+
+    public static WorldTempMemo get(Level level)
+    {   return MEMOS.computeIfAbsent(level, l -> new WorldTempMemo(level));
+    }
+
+    /**
+     * @param channel Identifies the kind of result, usually the ID of the TempModifier calculating it
+     * @param pos The position the result is for
+     * @param calculation Calculates the result if there isn't a recent one for this cell
+     */
+    public <T> T getOrCalculate(String channel, BlockPos pos, Supplier<T> calculation)
+    {
+        int cellSize = ConfigSettings.WORLD_TEMP_CELL_SIZE.get();
+        int cacheTime = ConfigSettings.WORLD_TEMP_CACHE_TIME.get();
+        if (cacheTime <= 0) return calculation.get();
+
+        long gameTime = level.getGameTime();
+        if (cellSize != lastCellSize)
+        {   lastCellSize = cellSize;
+            channels.clear();
+        }
+        else if (gameTime - lastCleanup >= cacheTime)
+        {   this.removeExpired(gameTime, cacheTime);
+        }
+
+        Long2ObjectOpenHashMap<Entry> entries = channels.computeIfAbsent(channel, id -> new Long2ObjectOpenHashMap<>());
+        long key = BlockPos.asLong(Math.floorDiv(pos.getX(), cellSize), Math.floorDiv(pos.getY(), cellSize), Math.floorDiv(pos.getZ(), cellSize));
+        Entry entry = entries.get(key);
+        // The game time can go backwards if it is set by a command
+        if (entry == null || gameTime - entry.time() >= cacheTime || gameTime < entry.time())
+        {   entry = new Entry(calculation.get(), gameTime);
+            entries.put(key, entry);
+        }
+        return (T) entry.value();
+    }
+
+    private void removeExpired(long gameTime, int cacheTime)
+    {
+        lastCleanup = gameTime;
+        for (Long2ObjectOpenHashMap<Entry> entries : channels.values())
+        {   entries.values().removeIf(entry -> gameTime - entry.time() >= cacheTime || gameTime < entry.time());
+        }
+    }
+
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event)
+    {   MEMOS.remove(event.getLevel());
+    }
+
+    private record Entry(Object value, long time)
+    {}
+}
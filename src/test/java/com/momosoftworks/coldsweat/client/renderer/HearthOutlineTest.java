@@ -0,0 +1,95 @@
+package com.momosoftworks.coldsweat.client.renderer;
+
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.core.BlockPos;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HearthOutlineTest
+{
+    @Test
+    public void singleBlockHasTwelveEdges()
+    {
+        List<float[]> lines = lines(HearthOutline.build(new long[] { BlockPos.asLong(0, 0, 0) }, new LongOpenHashSet()));
+        assertEquals(12, lines.size());
+        for (float[] line : lines)
+        {   assertEquals(1, length(line));
+        }
+    }
+
+    @Test
+    public void runMergesEdgesAlongIt()
+    {
+        long[] blocks = { BlockPos.asLong(0, 0, 0), BlockPos.asLong(1, 0, 0) };
+        List<float[]> lines = lines(HearthOutline.build(blocks, new LongOpenHashSet()));
+
+        int longEdges = 0, endCaps = 0;
+        for (float[] line : lines)
+        {
+            if (length(line) == 2)
+            {   // The long edges run along the length of the run
+                assertEquals(line[1], line[4]);
+                assertEquals(line[2], line[5]);
+                longEdges++;
+            }
+            else
+            {   assertEquals(1, length(line));
+                // The end caps are on the two ends of the run, not between the blocks
+                assertEquals(line[0], line[3]);
+                assertTrue(line[0] == 0 || line[0] == 2);
+                endCaps++;
+            }
+        }
+        assertEquals(4, longEdges);
+        assertEquals(8, endCaps);
+    }
+
+    @Test
+    public void linesAreSplitAtSectionBorders()
+    {
+        long[] blocks = { BlockPos.asLong(14, 0, 0), BlockPos.asLong(15, 0, 0), BlockPos.asLong(16, 0, 0), BlockPos.asLong(17, 0, 0) };
+        HearthOutline outline = HearthOutline.build(blocks, new LongOpenHashSet());
+        assertEquals(2, outline.getSections().size());
+
+        int alongX = 0;
+        for (float[] line : lines(outline))
+        {
+            if (line[0] == line[3]) continue;
+            float minX = Math.min(line[0], line[3]), maxX = Math.max(line[0], line[3]);
+            assertFalse(minX < 16 && maxX > 16);
+            assertEquals(2, length(line));
+            alongX++;
+        }
+        assertEquals(8, alongX);
+
+        for (HearthOutline.Section section : outline.getSections())
+        {
+            // Every line in a section starts inside that section
+            int sectionX = (int) Math.floor(section.bounds().minX) >> 4;
+            assertTrue(section.bounds().maxX <= (sectionX + 1) * 16);
+        }
+    }
+
+    private static List<float[]> lines(HearthOutline outline)
+    {
+        List<float[]> lines = new ArrayList<>();
+        for (HearthOutline.Section section : outline.getSections())
+        {
+            float[] sectionLines = section.lines();
+            for (int i = 0; i < sectionLines.length; i += 6)
+            {   float[] line = new float[6];
+                System.arraycopy(sectionLines, i, line, 0, 6);
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    private static float length(float[] line)
+    {   return Math.abs(line[3] - line[0]) + Math.abs(line[4] - line[1]) + Math.abs(line[5] - line[2]);
+    }
+}
@@ -0,0 +1,139 @@
+package com.momosoftworks.coldsweat.util.math;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VoxelRayTest
+{
+    private static final int RAYS = 20000;
+
+    @Test
+    public void visitsConnectedCellsBetweenEndpoints()
+    {
+        Random random = new Random(1234);
+        for (int i = 0; i < RAYS; i++)
+        {
+            double[] ray = randomRay(random);
+            List<int[]> cells = walk(ray);
+            int[] start = cell(ray[0], ray[1], ray[2]);
+            int[] end = cell(ray[3], ray[4], ray[5]);
+            String name = describe(ray);
+
+            int steps = Math.abs(end[0] - start[0]) + Math.abs(end[1] - start[1]) + Math.abs(end[2] - start[2]);
+            assertEquals(Math.max(0, steps - 1), cells.size(), name);
+            if (cells.isEmpty()) continue;
+
+            Set<List<Integer>> seen = new HashSet<>();
+            int[] previous = start;
+            for (int[] cell : cells)
+            {
+                assertTrue(isFaceAdjacent(previous, cell), name);
+                assertTrue(seen.add(List.of(cell[0], cell[1], cell[2])), name);
+                assertFalse(isSame(cell, start), name);
+                assertFalse(isSame(cell, end), name);
+                previous = cell;
+            }
+            assertTrue(isFaceAdjacent(previous, end), name);
+        }
+    }
+
+    @Test
+    public void matchesSampledRay()
+    {
+        Random random = new Random(5678);
+        int compared = 0;
+        for (int i = 0; i < RAYS; i++)
+        {
+            double[] ray = randomRay(random);
+            List<int[]> sampled = sample(ray);
+            // The sampler can skip over cells that the ray only clips, so only compare rays where it didn't
+            if (sampled == null) continue;
+
+            List<int[]> cells = walk(ray);
+            // The sampler stops up to a block short of the end, so it may not reach every cell
+            assertTrue(sampled.size() <= cells.size(), describe(ray));
+            for (int c = 0; c < sampled.size(); c++)
+            {   assertArrayEquals(sampled.get(c), cells.get(c), describe(ray));
+            }
+            compared++;
+        }
+        // Long diagonal rays almost always clip a corner, so most comparisons come from short or axis-aligned rays
+        assertTrue(compared > RAYS / 50);
+    }
+
+    @Test
+    public void stopsWhenVisitorReturnsFalse()
+    {
+        int[] visits = {0};
+        VoxelRay.forCellsInRay(0.5, 0.5, 0.5, 20.5, 0.5, 0.5, (x, y, z) -> ++visits[0] < 5);
+        assertEquals(5, visits[0]);
+    }
+
+    private static double[] randomRay(Random random)
+    {
+        double[] ray = new double[6];
+        for (int a = 0; a < 3; a++)
+        {   ray[a] = (random.nextDouble() - 0.5) * 64;
+            // Some rays are axis-aligned or stay in one plane
+            ray[a + 3] = random.nextInt(8) == 0 ? ray[a] : ray[a] + (random.nextDouble() - 0.5) * 48;
+        }
+        return ray;
+    }
+
+    private static List<int[]> walk(double[] ray)
+    {
+        List<int[]> cells = new ArrayList<>();
+        VoxelRay.forCellsInRay(ray[0], ray[1], ray[2], ray[3], ray[4], ray[5], (x, y, z) -> cells.add(new int[] { x, y, z }));
+        return cells;
+    }
+
+    /**
+     * The traversal forBlocksInRay used before, which sampled the ray once per block of length.<br>
+     * Like the old caller, the cell containing the end point is left out.
+     * @return The sampled cells, or null if any two consecutive samples weren't face-adjacent
+     */
+    private static List<int[]> sample(double[] ray)
+    {
+        double dx = ray[3] - ray[0], dy = ray[4] - ray[1], dz = ray[5] - ray[2];
+        double length = Math.sqrt(dx * dx + dy * dy + dz * dz);
+        int[] end = cell(ray[3], ray[4], ray[5]);
+        List<int[]> cells = new ArrayList<>();
+        if (length < 1.0E-4) return cells;
+
+        int[] previous = cell(ray[0], ray[1], ray[2]);
+        for (int i = 0; i < length; i++)
+        {
+            int[] cell = cell(ray[0] + dx / length * i, ray[1] + dy / length * i, ray[2] + dz / length * i);
+            if (isSame(cell, previous)) continue;
+            if (!isFaceAdjacent(previous, cell)) return null;
+            if (!isSame(cell, end))
+            {   cells.add(cell);
+            }
+            previous = cell;
+        }
+        return cells;
+    }
+
+    private static int[] cell(double x, double y, double z)
+    {   return new int[] { (int) Math.floor(x), (int) Math.floor(y), (int) Math.floor(z) };
+    }
+
+    private static boolean isSame(int[] a, int[] b)
+    {   return a[0] == b[0] && a[1] == b[1] && a[2] == b[2];
+    }
+
+    private static boolean isFaceAdjacent(int[] a, int[] b)
+    {   return Math.abs(a[0] - b[0]) + Math.abs(a[1] - b[1]) + Math.abs(a[2] - b[2]) == 1;
+    }
+
+    private static String describe(double[] ray)
+    {   return String.format("(%s, %s, %s) -> (%s, %s, %s)", ray[0], ray[1], ray[2], ray[3], ray[4], ray[5]);
+    }
+}